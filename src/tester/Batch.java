@@ -0,0 +1,447 @@
+package tester;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * Runs the tests of many <code>Examples</code> classes in one JVM, so that
+ * the start of the JVM and the compilation of the tester are paid only
+ * once for all of them.
+ * </P>
+ * <P>
+ * The classes to run are listed in a manifest: every line gives a
+ * classpath, in the format of the <code>-cp</code> option, followed by the
+ * names of one or more <code>Examples</code> classes found on it, separated
+ * by spaces. Relative paths are resolved against the directory of the
+ * manifest; empty lines and lines that start with <code>#</code> are
+ * ignored. For example:
+ * </P>
+ * <PRE>
+ * # one line per submission
+ * alice/classes               Examples
+ * bob/classes:bob/lib/util.jar Examples ExamplesExtra
+ * </PRE>
+ * <P>
+ * Every class is loaded by its own class loader, so that classes with the
+ * same name in different submissions do not collide: a class found on the
+ * classpath of a submission is loaded from there even if the JVM that runs
+ * the batch can find it too; only the classes of the tester and of the
+ * Java platform are shared. The classes run at the same time on a fixed
+ * number of threads. Everything printed while a class runs -- the test
+ * report, without the data of the <code>Examples</code> class, and
+ * whatever its tests print -- goes to its own report file, named after its position in the manifest and its
+ * name. At the end the number of tests and failures of every class is
+ * printed, in the order of the manifest.
+ * </P>
+ * <P>
+ * A class that takes longer than the time limit set by the system property
+ * <CODE>{@link #TIMEOUT_PROPERTY tester.batchTimeout}</CODE> -- 10 minutes
+ * by default -- is reported as a class that could not run, and the next
+ * class runs in its place. Such a class is abandoned, not killed: it may
+ * go on running, and printing to its report file, until the batch ends.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public class Batch {
+
+	/**
+	 * The name of the system property that sets the time limit for one
+	 * <code>Examples</code> class, in milliseconds, or 0 for none.
+	 */
+	public static final String TIMEOUT_PROPERTY = "tester.batchTimeout";
+
+	/** the time limit for one class in milliseconds if none is set */
+	private static final long DEFAULT_TIMEOUT = 10 * 60 * 1000;
+
+	/**
+	 * One <code>Examples</code> class listed in the manifest, and the
+	 * outcome of its tests once it has run.
+	 */
+	private static final class Entry {
+
+		/** the position of the class in the manifest, starting at 1 */
+		final int number;
+
+		/** where the class and the classes it uses are found */
+		final URL[] classpath;
+
+		/** the name of the class */
+		final String className;
+
+		/** the number of tests run */
+		int tests = 0;
+
+		/** the number of tests that failed */
+		int errors = 0;
+
+		/** why the class could not be run, or <code>null</code> */
+		String problem = null;
+
+		/**
+		 * Constructor: a class to run.
+		 *
+		 * @param number the position of the class in the manifest
+		 * @param classpath where the class is found
+		 * @param className the name of the class
+		 */
+		Entry(int number, URL[] classpath, String className) {
+			this.number = number;
+			this.classpath = classpath;
+			this.className = className;
+		}
+
+		/**
+		 * @return the name of the report file of this class
+		 */
+		String reportName() {
+			return this.number + "-" + this.className + ".txt";
+		}
+	}
+
+	/**
+	 * <P>Run the <code>Examples</code> classes listed in a manifest.</P>
+	 * <P>The arguments are the manifest, the directory for the report files,
+	 * and optionally the number of classes to run at the same time -- by
+	 * default the number of processors. The JVM exits with the status 1 if
+	 * some class failed a test or could not run, so that a script can tell
+	 * that something went wrong.</P>
+	 *
+	 * @param argv the manifest, the report directory and the number of
+	 *          threads
+	 * @throws Exception if the manifest cannot be read or the reports
+	 *           cannot be written
+	 */
+	public static void main(String[] argv) throws Exception {
+		if (argv.length < 2 || argv.length > 3) {
+			System.err.println("usage: java tester.Batch manifest reportDir"
+					+ " [threads]");
+			return;
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (argv.length == 3)
+			threads = Integer.parseInt(argv[2]);
+		if (run(new File(argv[0]), new File(argv[1]), threads) > 0)
+			System.exit(1);
+	}
+
+	/**
+	 * Run the <code>Examples</code> classes listed in the given manifest,
+	 * writing the report of every class to its own file in the given
+	 * directory, and print the number of tests and failures of every class.
+	 *
+	 * @param manifest the list of classpaths and classes to run
+	 * @param reportDir the directory for the report files
+	 * @param threads the number of classes to run at the same time
+	 * @return the number of classes that failed some test or could not run
+	 * @throws IOException if the manifest cannot be read or the report
+	 *           directory cannot be created
+	 * @throws InterruptedException if interrupted while the classes run
+	 */
+	public static int run(File manifest, final File reportDir, int threads)
+			throws IOException, InterruptedException {
+		ArrayList<Entry> entries = readManifest(manifest);
+		if (!reportDir.isDirectory() && !reportDir.mkdirs())
+			throw new IOException("cannot create the directory " + reportDir);
+
+		final long timeout = timeoutProperty(TIMEOUT_PROPERTY);
+		RoutedStream.install();
+		ExecutorService pool = Executors.newFixedThreadPool(
+				Math.max(1, threads), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r,
+						"tester batch " + this.count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		for (final Entry entry : entries)
+			pool.execute(new Runnable() {
+				public void run() {
+					superviseEntry(entry, new File(reportDir,
+							entry.reportName()), timeout);
+				}
+			});
+		pool.shutdown();
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+		// report on every class, in the order of the manifest
+		int failed = 0;
+		int problems = 0;
+		for (Entry entry : entries) {
+			if (entry.problem != null) {
+				problems = problems + 1;
+				System.out.println(entry.reportName() + ": could not run: "
+						+ entry.problem);
+			} else {
+				if (entry.errors > 0)
+					failed = failed + 1;
+				System.out.println(entry.reportName() + ": ran "
+						+ entry.tests + " tests, " + entry.errors + " failed");
+			}
+		}
+		System.out.println("Ran " + entries.size() + " Examples classes: "
+				+ failed + " with failed tests, " + problems
+				+ " could not run.");
+		return failed + problems;
+	}
+
+	/**
+	 * @param property the name of the system property that sets the time
+	 *          limit
+	 * @return the time limit for one class in milliseconds, 0 for none
+	 */
+	static long timeoutProperty(String property) {
+		String value = System.getProperty(property);
+		if (value == null)
+			return DEFAULT_TIMEOUT;
+		try {
+			return Math.max(0, Long.parseLong(value.trim()));
+		} catch (NumberFormatException e) {
+			return DEFAULT_TIMEOUT;
+		}
+	}
+
+	/**
+	 * Run the tests of one <code>Examples</code> class on a thread of its
+	 * own, and abandon them if they do not finish within the given time.
+	 *
+	 * @param entry the class to run, where its outcome is recorded
+	 * @param report the report file of the class
+	 * @param timeout the time limit in milliseconds, 0 for none
+	 */
+	private static void superviseEntry(Entry entry, final File report,
+			long timeout) {
+		// an abandoned class records its outcome where no one reads it
+		final Entry outcome = new Entry(entry.number, entry.classpath,
+				entry.className);
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				runEntry(outcome, report);
+			}
+		}, Thread.currentThread().getName() + ": " + entry.reportName());
+		thread.setDaemon(true);
+		thread.start();
+		try {
+			thread.join(timeout);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (thread.isAlive()) {
+			thread.interrupt();
+			entry.problem = "did not finish within the time limit of "
+					+ timeout + " ms";
+		} else {
+			entry.tests = outcome.tests;
+			entry.errors = outcome.errors;
+			entry.problem = outcome.problem;
+		}
+	}
+
+	/**
+	 * Run the tests of one <code>Examples</code> class, sending everything
+	 * printed on the current thread to the given report file.
+	 *
+	 * @param entry the class to run, where its outcome is recorded
+	 * @param report the report file of the class
+	 */
+	private static void runEntry(Entry entry, File report) {
+		OutputStream out;
+		try {
+			out = new BufferedOutputStream(new FileOutputStream(report));
+		} catch (IOException e) {
+			entry.problem = "cannot write " + report + ": " + e.getMessage();
+			return;
+		}
+
+		RoutedStream.route(out);
+		try {
+			Tester t = runClass(entry.classpath, entry.className, null);
+			entry.tests = t.numberOfTests;
+			entry.errors = t.errors;
+		} catch (Throwable e) { // catch all exceptions
+			if (e instanceof InvocationTargetException && e.getCause() != null)
+				e = e.getCause();
+			entry.problem = e.toString();
+			e.printStackTrace();
+		} finally {
+			System.out.flush();
+			System.err.flush();
+			RoutedStream.route(null);
+			try {
+				out.close();
+			} catch (IOException e) {
+				if (entry.problem == null)
+					entry.problem = "cannot write " + report + ": "
+							+ e.getMessage();
+			}
+		}
+	}
+
+	/**
+	 * The class loader of one submission: it looks for a class on the
+	 * classpath of the submission first, and asks the class loader of the
+	 * tester only for the classes of the tester and of the Java platform,
+	 * or for the classes the submission does not have.
+	 */
+	private static final class SubmissionLoader extends URLClassLoader {
+
+		/** the packages of the classes that all submissions share */
+		private static final String[] SHARED = { "java.", "javax.", "jdk.",
+				"sun.", "com.sun.", "org.w3c.", "org.xml.", "tester." };
+
+		static {
+			ClassLoader.registerAsParallelCapable();
+		}
+
+		/**
+		 * Constructor: a class loader for the given classpath.
+		 *
+		 * @param classpath where the classes of the submission are found
+		 */
+		SubmissionLoader(URL[] classpath) {
+			super(classpath, Batch.class.getClassLoader());
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve)
+				throws ClassNotFoundException {
+			for (String prefix : SHARED)
+				if (name.startsWith(prefix))
+					return super.loadClass(name, resolve);
+
+			synchronized (this.getClassLoadingLock(name)) {
+				Class<?> c = this.findLoadedClass(name);
+				if (c == null) {
+					try {
+						c = this.findClass(name);
+					} catch (ClassNotFoundException e) {
+						return super.loadClass(name, resolve);
+					}
+				}
+				if (resolve)
+					this.resolveClass(c);
+				return c;
+			}
+		}
+	}
+
+	/**
+	 * Load the given <code>Examples</code> class with a class loader of its
+	 * own, make an instance with its default constructor, and run its
+	 * tests as <CODE>{@link Main Main}</CODE> does, but without printing
+	 * the data of the instance.
+	 *
+	 * @param classpath where the class and the classes it uses are found
+	 * @param className the name of the class
+	 * @param sink the receiver of the test results, or <code>null</code>
+	 *          for the usual report
+	 * @return the tester that ran the tests
+	 * @throws Exception if the class cannot be loaded or instantiated
+	 */
+	static Tester runClass(URL[] classpath, String className, ResultSink sink)
+			throws Exception {
+		URLClassLoader loader = new SubmissionLoader(classpath);
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			Class<?> examples = Class.forName(className, true, loader);
+			Constructor<?> constructor = examples.getDeclaredConstructor();
+			Reflector.ensureIsAccessible(constructor);
+			Object o = constructor.newInstance();
+
+			Tester t = new Tester();
+			if (sink != null)
+				t.setResultSink(sink);
+			t.runAnyTests(o, false, false);
+			return t;
+		} finally {
+			thread.setContextClassLoader(previous);
+			loader.close();
+		}
+	}
+
+	/**
+	 * Read the classes to run from the given manifest.
+	 *
+	 * @param manifest the list of classpaths and classes to run
+	 * @return the classes to run, in the order of the manifest
+	 * @throws IOException if the manifest cannot be read, or a line names
+	 *           no class
+	 */
+	private static ArrayList<Entry> readManifest(File manifest)
+			throws IOException {
+		File base = manifest.getAbsoluteFile().getParentFile();
+		ArrayList<Entry> entries = new ArrayList<Entry>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(manifest), StandardCharsets.UTF_8));
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber = lineNumber + 1;
+				line = line.trim();
+				if (line.length() == 0 || line.startsWith("#"))
+					continue;
+				String[] words = line.split("\\s+");
+				if (words.length < 2)
+					throw new IOException(manifest + ", line " + lineNumber
+							+ ": no Examples class named after the classpath");
+				URL[] classpath = classpath(base, words[0]);
+				for (int i = 1; i < words.length; i++)
+					entries.add(new Entry(entries.size() + 1, classpath,
+							words[i]));
+			}
+		} finally {
+			reader.close();
+		}
+		return entries;
+	}
+
+	/**
+	 * Produce the locations listed in the given classpath.
+	 *
+	 * @param base the directory against which relative paths are resolved
+	 * @param path the classpath, in the format of the <code>-cp</code>
+	 *          option
+	 * @return the URLs of the directories and archives on the classpath
+	 * @throws IOException if a path cannot be made into a URL
+	 */
+	static URL[] classpath(File base, String path) throws IOException {
+		String[] parts = path.split(File.pathSeparator);
+		URL[] urls = new URL[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			File file = new File(parts[i]);
+			if (!file.isAbsolute() && base != null)
+				file = new File(base, parts[i]);
+			urls[i] = file.toURI().toURL();
+		}
+		return urls;
+	}
+}
@@ -0,0 +1,142 @@
+package tester;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The place in the user's code where a test was invoked, shown in the test
+ * report of a failed test.
+ * </P>
+ * <P>
+ * Capturing a call site walks the stack of the current thread right away,
+ * as every new exception does, so a call site is captured only for a test
+ * that fails, or when the receiver of the test results asks for the place
+ * of every test. The stack trace elements are not built, filtered, or
+ * converted to a <code>String</code> until the call site is rendered. The
+ * rendered trace keeps only
+ * the frames of the user's code -- the frames of the tester library, of the
+ * reflection and concurrency libraries, and of the BlueJ shell are
+ * omitted.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class CallSite {
+
+	/** the prefixes of the class names whose frames are omitted */
+	private static final String[] OMITTED = { "tester.", "sun.reflect",
+			"java.lang", "java.util.concurrent", "bluej", "__SHELL" };
+
+	/** the message that starts the rendered trace */
+	private static final String MESSAGE = "Error trace:";
+
+	/**
+	 * the exception that recorded the stack -- never thrown -- or
+	 * <code>null</code> if the frames were given
+	 */
+	private final Throwable capture;
+
+	/** the frames of the stack, or <code>null</code> if not built yet */
+	private StackTraceElement[] frames;
+
+	/** the rendered trace, or <code>null</code> if not rendered yet */
+	private String trace = null;
+
+	/**
+	 * Constructor: the call site with the stack recorded by the given
+	 * exception, or with the given frames.
+	 *
+	 * @param capture the exception that recorded the stack, or
+	 *          <code>null</code>
+	 * @param frames the frames of the stack, or <code>null</code> to take
+	 *          them from the exception
+	 */
+	private CallSite(Throwable capture, StackTraceElement[] frames) {
+		this.capture = capture;
+		this.frames = frames;
+	}
+
+	/**
+	 * Record the call site of the test that is being evaluated.
+	 *
+	 * @return the call site of the current test
+	 */
+	static CallSite capture() {
+		return new CallSite(new ErrorReport(MESSAGE), null);
+	}
+
+	/**
+	 * Record the place where a test method threw the given exception,
+	 * without walking the current stack.
+	 *
+	 * @param thrown the exception thrown by a test method
+	 * @return the place where the exception was thrown
+	 */
+	static CallSite thrown(Throwable thrown) {
+		return new CallSite(null, thrown.getStackTrace());
+	}
+
+	/**
+	 * @return the frames of the recorded stack
+	 */
+	private StackTraceElement[] frames() {
+		if (this.frames == null)
+			this.frames = this.capture.getStackTrace();
+		return this.frames;
+	}
+
+	/**
+	 * Produce a formatted <code>String</code> that represents the frames of
+	 * the user's code at this call site, with a link to the test case.
+	 *
+	 * @return a formatted representation of the relevant stack trace
+	 */
+	String render() {
+		if (this.trace == null) {
+			// print only the relevant entries, as printStackTrace would
+			StringWriter writer = new StringWriter();
+			PrintWriter out = new PrintWriter(writer);
+			out.println(ErrorReport.class.getName() + ": " + MESSAGE);
+			for (StackTraceElement frame : this.frames())
+				if (!omitted(frame))
+					out.println("\tat " + frame);
+			out.flush();
+			this.trace = writer.toString();
+		}
+		return this.trace;
+	}
+
+	/**
+	 * Produce the frame of the user's code closest to the test: the place
+	 * where the test was invoked.
+	 *
+	 * @return the first frame of the user's code, or <code>null</code> if
+	 *         the stack contains no such frame
+	 */
+	StackTraceElement frame() {
+		for (StackTraceElement frame : this.frames())
+			if (!omitted(frame))
+				return frame;
+		return null;
+	}
+
+	/**
+	 * Is the given frame omitted from the rendered trace?
+	 *
+	 * @param frame a frame of the recorded stack
+	 * @return <code>true</code> if the frame is not in the user's code
+	 */
+	private static boolean omitted(StackTraceElement frame) {
+		String cname = frame.getClassName();
+		for (String prefix : OMITTED)
+			if (cname.startsWith(prefix))
+				return true;
+		return false;
+	}
+}
@@ -0,0 +1,146 @@
+package tester;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * Writes the text of a report to a file through a buffered
+ * <code>FileChannel</code>, in UTF-8. The text is collected in a fixed
+ * buffer that is written out whenever it fills up, so the memory used does
+ * not depend on the size of the report.
+ * </P>
+ * <P>
+ * A part of the file that has already been written can be overwritten in
+ * place: this is how a report writes its totals into the header once all
+ * tests have been run.
+ * </P>
+ * <P>
+ * The errors of the file system are rethrown as
+ * <code>UncheckedIOException</code>s, as the sinks that use the writer
+ * cannot throw checked exceptions.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class ChannelWriter {
+
+	/** the size of the buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** the channel to the file */
+	private final FileChannel channel;
+
+	/** the text not yet written to the channel */
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+	/**
+	 * Constructor: open the given file for writing, replacing its contents.
+	 *
+	 * @param file the file to write
+	 * @throws IOException if the file cannot be opened for writing
+	 */
+	ChannelWriter(File file) throws IOException {
+		this.channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Append the given text to the file.
+	 *
+	 * @param text the text to write
+	 */
+	void write(String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!this.buffer.hasRemaining())
+				this.drain();
+			int length = Math.min(this.buffer.remaining(), bytes.length - offset);
+			this.buffer.put(bytes, offset, length);
+			offset = offset + length;
+		}
+	}
+
+	/**
+	 * Produce the position in the file where the next text will be written.
+	 *
+	 * @return the number of bytes written so far
+	 */
+	long position() {
+		try {
+			return this.channel.position() + this.buffer.position();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Overwrite the part of the file at the given position with the given
+	 * text -- the part must have been written already.
+	 *
+	 * @param position the position of the part in the file
+	 * @param text the text to write, as long as the part it replaces
+	 */
+	void writeAt(long position, String text) {
+		this.flush();
+		try {
+			ByteBuffer bytes = ByteBuffer.wrap(
+					text.getBytes(StandardCharsets.UTF_8));
+			while (bytes.hasRemaining())
+				position = position + this.channel.write(bytes, position);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Write all buffered text to the file.
+	 */
+	void flush() {
+		this.drain();
+	}
+
+	/**
+	 * Write all buffered text to the file and close it.
+	 */
+	void close() {
+		try {
+			this.drain();
+		} finally {
+			try {
+				this.channel.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Write the contents of the buffer to the channel and empty it.
+	 */
+	private void drain() {
+		// through Buffer: the ByteBuffer overrides do not exist in Java 8
+		((Buffer) this.buffer).flip();
+		try {
+			while (this.buffer.hasRemaining())
+				this.channel.write(this.buffer);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			((Buffer) this.buffer).clear();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package tester;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The state of the comparisons made on behalf of one <code>Tester</code>:
+ * the tolerance for inexact numbers, whether inexact numbers were compared
+ * and whether that was allowed, and the pairs of objects already seen in
+ * the current comparison.
+ * </P>
+ * <P>
+ * Every <code>Tester</code> owns one context and shares it with its
+ * <code>Inspector</code>, so that several testers can run at the same time
+ * without affecting each other's results. A context is used by one thread
+ * at a time.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class ComparisonContext {
+
+	/** the tolerance used until a test sets its own */
+	static final double DEFAULT_TOLERANCE = 0.001;
+
+	/** the tolerance for comparison of relative difference of inexact numbers */
+	double tolerance = DEFAULT_TOLERANCE;
+
+	/** set to <code>true</code> if comparison involved inexact numbers */
+	boolean inexactCompared = false;
+
+	/** set to <code>true</code> if comparison of inexact numbers is expected */
+	boolean inexactAllowed = false;
+
+	/**
+	 * the pairs of objects that are being compared: if the same pair is
+	 * compared again, the loop of comparisons stops and produces
+	 * <code>true</code>
+	 */
+	final IdentityPairSet visited = new IdentityPairSet();
+}
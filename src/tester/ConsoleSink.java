@@ -0,0 +1,103 @@
+package tester;
+
+import java.io.PrintStream;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The <CODE>{@link ResultSink ResultSink}</CODE> that prints every test
+ * result as soon as the test has been evaluated and keeps nothing: the
+ * memory used by the report does not grow with the number of tests.
+ * </P>
+ * <P>
+ * Failed tests are always printed; successful tests only if the sink was
+ * made to show them. At the end of the run the sink prints the number of
+ * tests, failures and warnings.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public class ConsoleSink implements ResultSink {
+
+	/** the stream where the results are printed */
+	protected final PrintStream out;
+
+	/** <code>true</code> if successful tests are printed too */
+	private final boolean showSuccesses;
+
+	/** print the failed tests on <code>System.out</code> */
+	public ConsoleSink() {
+		this(System.out, false);
+	}
+
+	/**
+	 * Constructor: print the results on the given stream.
+	 *
+	 * @param out the stream where the results are printed
+	 * @param showSuccesses <code>true</code> if successful tests are
+	 *          printed too
+	 */
+	public ConsoleSink(PrintStream out, boolean showSuccesses) {
+		this.out = out;
+		this.showSuccesses = showSuccesses;
+	}
+
+	/**
+	 * Print the result of a test that succeeded, if successes are shown.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testSucceeded(TestResult result) {
+		if (this.showSuccesses)
+			this.out.println("\n" + result.getReport());
+	}
+
+	/**
+	 * Print the result of a test that failed.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testFailed(TestResult result) {
+		this.out.println("\n" + result.getReport());
+	}
+
+	/**
+	 * Print the number of tests, failures and warnings.
+	 *
+	 * @param tests the number of tests run
+	 * @param errors the number of tests that failed
+	 * @param warnings the number of warnings of inexact comparison issued
+	 * @param full <code>true</code> if the full test report was requested
+	 */
+	public void testsFinished(int tests, int errors, int warnings,
+			boolean full) {
+		this.out.print(MemorySink.testCount(tests, errors, warnings));
+		this.out.println("--- END OF TEST RESULTS ---");
+		this.out.flush();
+	}
+
+	/**
+	 * Print the report on the times of the tests and of the test methods.
+	 *
+	 * @param tests the times of the tests
+	 * @param methods the times of the test methods
+	 */
+	public void timingsFinished(Timings tests, Timings methods) {
+		this.out.println(Timings.report(tests, methods));
+		this.out.flush();
+	}
+
+	/**
+	 * The printed results do not show where the successful tests were
+	 * invoked.
+	 *
+	 * @return <code>false</code>
+	 */
+	public boolean needsSourceFrames() {
+		return false;
+	}
+}
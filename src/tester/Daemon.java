@@ -0,0 +1,439 @@
+package tester;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * Runs the tests of <code>Examples</code> classes on request, for as long
+ * as the requests keep coming, so that the JVM, the compiled tester and
+ * the information the tester keeps about the classes it has seen are
+ * reused by all of them.
+ * </P>
+ * <P>
+ * The requests are read from the standard input, or from the connections
+ * to a TCP port on the local machine. Any user of the machine can connect
+ * to the port, so the first line of every connection must be the token
+ * kept in a file that only the users allowed to run tests can read; a
+ * connection that does not present it is closed. Every request is one
+ * line: a classpath, in the format of the <code>-cp</code> option,
+ * followed by the names of one or more <code>Examples</code> classes found
+ * on it, as in
+ * the manifest of a <CODE>{@link Batch Batch}</CODE>. Relative paths are
+ * resolved against the working directory of the daemon. The line
+ * <code>quit</code> ends the requests of a connection.
+ * </P>
+ * <P>
+ * A class that takes longer than the time limit set by the system property
+ * <CODE>{@link #TIMEOUT_PROPERTY tester.daemonTimeout}</CODE> -- 10
+ * minutes by default -- is reported as a class that could not be run, and
+ * the next request is served. Such a class is abandoned, not killed: it
+ * may go on running until the daemon ends, but nothing it reports or
+ * prints is written back or kept any more. Since the threads of abandoned
+ * classes are never freed, the daemon exits once
+ * <CODE>{@link #MAX_ABANDONED MAX_ABANDONED}</CODE> classes were
+ * abandoned, so that whatever supervises it can start a fresh one.
+ * </P>
+ * <P>
+ * Every class is loaded by a class loader of its own. The results are
+ * written back as lines of JSON: first one record for every test, in the
+ * form written by the <CODE>{@link JsonLinesSink JsonLinesSink}</CODE>,
+ * and when the timing of the tests is on, its two records of the times,
+ * then one record for the whole class with the fields
+ * </P>
+ * <UL>
+ * <LI><code>examples</code> -- the name of the class</LI>
+ * <LI><code>outcome</code> -- <code>"finished"</code>, or
+ * <code>"error"</code> if the class could not be run</LI>
+ * <LI><code>tests</code>, <code>failures</code>, <code>warnings</code> --
+ * the numbers of tests, failed tests and warnings of inexact
+ * comparison</LI>
+ * <LI><code>error</code> -- why the class could not be run, or
+ * <code>null</code></LI>
+ * <LI><code>output</code> -- everything printed while the class ran, up
+ * to <CODE>{@link #MAX_OUTPUT MAX_OUTPUT}</CODE> bytes</LI>
+ * </UL>
+ *
+ * @since 18 October 2026
+ */
+public class Daemon {
+
+	/**
+	 * The name of the system property that sets the time limit for one
+	 * <code>Examples</code> class, in milliseconds, or 0 for none.
+	 */
+	public static final String TIMEOUT_PROPERTY = "tester.daemonTimeout";
+
+	/** the number of abandoned classes after which the daemon exits */
+	public static final int MAX_ABANDONED = 10;
+
+	/** the number of bytes of the output of one class written back */
+	public static final int MAX_OUTPUT = 1 << 20;
+
+	/** the number of classes abandoned so far */
+	private static int abandonedClasses = 0;
+
+	/**
+	 * The output of one <code>Examples</code> class: kept up to
+	 * <CODE>{@link #MAX_OUTPUT MAX_OUTPUT}</CODE> bytes, and dropped once
+	 * the class is abandoned.
+	 */
+	private static final class RequestOutput extends OutputStream {
+
+		/** the output kept so far */
+		private final ByteArrayOutputStream kept = new ByteArrayOutputStream();
+
+		/** <code>true</code> if some output was dropped for its size */
+		private boolean cut = false;
+
+		/** <code>true</code> once the class is abandoned */
+		private boolean closed = false;
+
+		@Override
+		public synchronized void write(int b) {
+			this.write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			if (this.closed)
+				return;
+			int room = MAX_OUTPUT - this.kept.size();
+			if (len > room) {
+				this.cut = true;
+				len = Math.max(0, room);
+			}
+			this.kept.write(b, off, len);
+		}
+
+		/**
+		 * Drop all output from now on.
+		 */
+		@Override
+		public synchronized void close() {
+			this.closed = true;
+		}
+
+		/**
+		 * @return the output kept so far, marked if some was dropped
+		 */
+		synchronized String contents() {
+			String s = new String(this.kept.toByteArray(),
+					StandardCharsets.UTF_8);
+			if (this.cut)
+				s = s + "\n... (output cut at " + MAX_OUTPUT + " bytes)";
+			return s;
+		}
+	}
+
+	/**
+	 * <P>Serve the requests read from the standard input, or with a port
+	 * number and a token file as the arguments, the requests of the
+	 * connections to that port on the local machine that present the token
+	 * -- the port 0 picks a free one.</P>
+	 *
+	 * @param argv [optional] the port to listen on and the file with the
+	 *          token
+	 * @throws IOException if the requests cannot be read or answered
+	 */
+	public static void main(String[] argv) throws IOException {
+		if (argv.length == 0)
+			serve(System.in, System.out);
+		else if (argv.length == 2)
+			listen(Integer.parseInt(argv[0]), readToken(new File(argv[1])));
+		else
+			System.err.println("usage: java tester.Daemon [port tokenFile]");
+	}
+
+	/**
+	 * Read the token that the connections must present from the first line
+	 * of the given file.
+	 *
+	 * @param file the file with the token
+	 * @return the token
+	 * @throws IOException if the file cannot be read or has no token
+	 */
+	static String readToken(File file) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String token = reader.readLine();
+			if (token == null || token.trim().length() == 0)
+				throw new IOException("no token in " + file);
+			return token.trim();
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Serve the requests of the connections to the given port on the local
+	 * machine, each connection on its own thread, until the JVM ends. The
+	 * first line of every connection must be the given token, or the
+	 * connection is closed without serving any request.
+	 *
+	 * @param port the port to listen on, 0 for a free one
+	 * @param token the token the connections must present
+	 * @throws IOException if the port cannot be opened
+	 */
+	public static void listen(int port, final String token)
+			throws IOException {
+		if (token == null || token.length() == 0)
+			throw new IllegalArgumentException("the daemon needs a token");
+		ServerSocket server = new ServerSocket(port, 50,
+				InetAddress.getLoopbackAddress());
+		RoutedStream.direct(System.err).println(
+				"Tester daemon listening on port " + server.getLocalPort());
+		try {
+			while (true) {
+				final Socket socket = server.accept();
+				Thread thread = new Thread(new Runnable() {
+					public void run() {
+						try {
+							InputStream in = socket.getInputStream();
+							if (presentsToken(in, token))
+								serve(in, socket.getOutputStream());
+						} catch (IOException e) {
+							e.printStackTrace();
+						} finally {
+							try {
+								socket.close();
+							} catch (IOException e) {
+								// the connection is gone already
+							}
+						}
+					}
+				}, "tester daemon " + socket.getPort());
+				thread.setDaemon(true);
+				thread.start();
+			}
+		} finally {
+			server.close();
+		}
+	}
+
+	/**
+	 * Does the first line read from the given stream hold the given token?
+	 * The line is read byte by byte, so that nothing after it is consumed.
+	 *
+	 * @param in the stream of a connection
+	 * @param token the token the connection must present
+	 * @return <code>true</code> if the connection presented the token
+	 * @throws IOException if the stream cannot be read
+	 */
+	private static boolean presentsToken(InputStream in, String token)
+			throws IOException {
+		byte[] expected = token.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1 && b != '\n') {
+			// a line much longer than the token is not worth reading
+			if (line.size() > expected.length + 1)
+				return false;
+			line.write(b);
+		}
+		String presented = new String(line.toByteArray(),
+				StandardCharsets.UTF_8).trim();
+		return MessageDigest.isEqual(expected,
+				presented.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Serve the requests read from the given stream until it ends or the
+	 * line <code>quit</code> is read, writing the results to the given
+	 * stream.
+	 *
+	 * @param in the stream of requests
+	 * @param out the stream for the results
+	 * @throws IOException if the requests cannot be read or answered
+	 */
+	public static void serve(InputStream in, OutputStream out)
+			throws IOException {
+		// the results must not go where the tests print
+		if (out instanceof PrintStream)
+			out = RoutedStream.direct((PrintStream) out);
+		RoutedStream.install();
+		long timeout = Batch.timeoutProperty(TIMEOUT_PROPERTY);
+
+		BufferedReader requests = new BufferedReader(
+				new InputStreamReader(in, StandardCharsets.UTF_8));
+		Writer results = new OutputStreamWriter(
+				new BufferedOutputStream(out), StandardCharsets.UTF_8);
+		String line;
+		while ((line = requests.readLine()) != null) {
+			line = line.trim();
+			if (line.equals("quit"))
+				break;
+			if (line.length() == 0 || line.startsWith("#"))
+				continue;
+
+			String[] words = line.split("\\s+");
+			if (words.length < 2) {
+				writeFinished(results, null, null, "no Examples class named"
+						+ " after the classpath", "");
+				continue;
+			}
+			URL[] classpath = Batch.classpath(null, words[0]);
+			for (int i = 1; i < words.length; i++)
+				runRequest(classpath, words[i], results, timeout);
+		}
+		results.flush();
+	}
+
+	/**
+	 * Run the tests of one <code>Examples</code> class and write back its
+	 * results, abandoning the class if it does not finish within the given
+	 * time.
+	 *
+	 * @param classpath where the class and the classes it uses are found
+	 * @param className the name of the class
+	 * @param results the stream for the results
+	 * @param timeout the time limit in milliseconds, 0 for none
+	 * @throws IOException if the results cannot be written
+	 */
+	private static void runRequest(final URL[] classpath,
+			final String className, final Writer results, long timeout)
+			throws IOException {
+		// once the class is abandoned, nothing it reports is written
+		final boolean[] abandoned = new boolean[] { false };
+		final ResultSink sink = new ResultSink() {
+			public void testSucceeded(TestResult result) {
+				this.write(JsonLinesSink.record(result));
+			}
+
+			public void testFailed(TestResult result) {
+				this.write(JsonLinesSink.record(result));
+			}
+
+			public void testsFinished(int tests, int errors, int warnings,
+					boolean full) {
+				// the record for the whole class follows
+			}
+
+			public void timingsFinished(Timings tests, Timings methods) {
+				this.write(JsonLinesSink.timingRecord("tests", tests)
+						+ JsonLinesSink.timingRecord("test methods", methods));
+			}
+
+			public boolean needsSourceFrames() {
+				return true;
+			}
+
+			private void write(String record) {
+				synchronized (results) {
+					if (abandoned[0])
+						return;
+					try {
+						results.write(record);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			}
+		};
+
+		final RequestOutput output = new RequestOutput();
+		final Tester[] t = new Tester[1];
+		final String[] error = new String[1];
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				RoutedStream.route(output);
+				try {
+					t[0] = Batch.runClass(classpath, className, sink);
+				} catch (Throwable e) { // catch all exceptions
+					if (e instanceof InvocationTargetException
+							&& e.getCause() != null)
+						e = e.getCause();
+					error[0] = e.toString();
+				} finally {
+					System.out.flush();
+					System.err.flush();
+					RoutedStream.route(null);
+				}
+			}
+		}, Thread.currentThread().getName() + ": " + className);
+		thread.setDaemon(true);
+		thread.start();
+		try {
+			thread.join(timeout);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		boolean exit = false;
+		synchronized (results) {
+			if (thread.isAlive()) {
+				abandoned[0] = true;
+				output.close();
+				thread.interrupt();
+				writeFinished(results, className, null,
+						"did not finish within the time limit of " + timeout
+						+ " ms", output.contents());
+				synchronized (Daemon.class) {
+					abandonedClasses = abandonedClasses + 1;
+					exit = abandonedClasses >= MAX_ABANDONED;
+				}
+			} else
+				writeFinished(results, className, t[0], error[0],
+						output.contents());
+		}
+
+		// the threads of the abandoned classes are never freed
+		if (exit) {
+			RoutedStream.direct(System.err).println("Tester daemon: "
+					+ MAX_ABANDONED + " classes did not finish, exiting");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Write the record for a whole <code>Examples</code> class and send
+	 * all results written so far.
+	 *
+	 * @param results the stream for the results
+	 * @param className the name of the class, or <code>null</code>
+	 * @param t the tester that ran its tests, or <code>null</code> if they
+	 *          did not run
+	 * @param error why the class could not be run, or <code>null</code>
+	 * @param output everything printed while the class ran
+	 * @throws IOException if the results cannot be written
+	 */
+	private static void writeFinished(Writer results, String className,
+			Tester t, String error, String output) throws IOException {
+		StringBuilder record = new StringBuilder("{\"examples\":");
+		record.append(JsonLinesSink.quote(className));
+		record.append(",\"outcome\":")
+				.append(error == null ? "\"finished\"" : "\"error\"");
+		record.append(",\"tests\":").append(t == null ? 0 : t.numberOfTests);
+		record.append(",\"failures\":").append(t == null ? 0 : t.errors);
+		record.append(",\"warnings\":").append(t == null ? 0 : t.warnings);
+		record.append(",\"error\":").append(JsonLinesSink.quote(error));
+		record.append(",\"output\":").append(JsonLinesSink.quote(output));
+		record.append("}\n");
+		results.write(record.toString());
+		results.flush();
+	}
+}
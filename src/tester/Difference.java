@@ -0,0 +1,607 @@
+package tester;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The first place where the actual and the expected value of a failed test
+ * differ, found by walking the two values side by side, the way the
+ * <CODE>{@link Printer Printer}</CODE> shows them: field by field, element
+ * by element of arrays, collections and
+ * <CODE>{@link Traversal Traversal}</CODE>s, and entry by entry of maps.
+ * The walk stops at the first difference, so it costs as much as the parts
+ * of the two values that are the same and come before it.
+ * </P>
+ * <P>
+ * A difference knows its path from the compared values -- for example
+ * <code>this.books[3].author.name</code> -- and the two values found there,
+ * and shows only those, within the <CODE>{@link PrintLimits
+ * PrintLimits}</CODE> of the area around a difference, instead of the two
+ * whole values. The values found there are compared exactly, as they are
+ * shown.
+ * </P>
+ * <P>
+ * The <CODE>{@link Inspector Inspector}</CODE> produces a difference too,
+ * for the first pair of values where its own comparison fails, with the
+ * tolerance it used if the values are inexact numbers.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class Difference {
+
+	/** the limits on the values shown around a difference */
+	private static final PrintLimits AREA = new PrintLimits(3, 10, 4000, 200);
+
+	/** stands for the element that one of two sequences does not have */
+	static final Object MISSING = new Object();
+
+	/** the path from the compared values to the difference */
+	final String path;
+
+	/** what differs there */
+	final String reason;
+
+	/** the actual value at the difference */
+	private final Object actual;
+
+	/** the expected value at the difference */
+	private final Object expected;
+
+	/**
+	 * the relative tolerance within which the values would have been the
+	 * same, or <code>NaN</code> if they are not inexact numbers
+	 */
+	final double tolerance;
+
+	/**
+	 * Constructor: the difference at the given path.
+	 *
+	 * @param path the path from the compared values
+	 * @param reason what differs there
+	 * @param actual the actual value at the path
+	 * @param expected the expected value at the path
+	 */
+	private Difference(String path, String reason, Object actual,
+			Object expected) {
+		this.path = path;
+		this.reason = reason;
+		this.actual = actual;
+		this.expected = expected;
+		this.tolerance = Double.NaN;
+	}
+
+	/**
+	 * Constructor: the difference found by the <code>Inspector</code> at the
+	 * given path.
+	 *
+	 * @param path the path from the compared values
+	 * @param actual the actual value at the path, or <code>MISSING</code>
+	 * @param expected the expected value at the path, or
+	 *          <code>MISSING</code>
+	 * @param tolerance the relative tolerance used to compare the values,
+	 *          or <code>NaN</code> if they are not inexact numbers
+	 */
+	Difference(String path, Object actual, Object expected, double tolerance) {
+		this.path = path;
+		this.reason = reasonFor(actual, expected);
+		this.actual = actual;
+		this.expected = expected;
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Produce what differs between the two given values that are not the
+	 * same.
+	 *
+	 * @param actual the actual value, or <code>MISSING</code>
+	 * @param expected the expected value, or <code>MISSING</code>
+	 * @return what differs
+	 */
+	private static String reasonFor(Object actual, Object expected) {
+		if (actual == MISSING)
+			return "no such actual element";
+		if (expected == MISSING)
+			return "no such expected element";
+		if (actual == null || expected == null)
+			return "one value is null";
+		if (actual.getClass() != expected.getClass())
+			return "different classes";
+		if (actual.getClass().isArray()
+				&& Array.getLength(actual) != Array.getLength(expected))
+			return "different lengths";
+		if (actual instanceof ISame)
+			return "not the same by its same method";
+		if (actual instanceof Map
+				&& ((Map<?, ?>) actual).size() != ((Map<?, ?>) expected).size())
+			return "different sizes";
+		if (actual instanceof Collection && ((Collection<?>) actual).size()
+				!= ((Collection<?>) expected).size())
+			return "different sizes";
+		if (actual instanceof Set)
+			return "different elements";
+		return "different values";
+	}
+
+	/**
+	 * Produce the path made of the given segments. Runs of the same
+	 * segment, as along the <code>rest</code> of a list, are shown once
+	 * with their count.
+	 *
+	 * @param segments the segments of the path, from the compared values
+	 * @return the path
+	 */
+	static String path(List<String> segments) {
+		StringBuilder path = new StringBuilder("this");
+		int i = 0;
+		while (i < segments.size()) {
+			String segment = segments.get(i);
+			int run = 1;
+			while (i + run < segments.size()
+					&& segments.get(i + run).equals(segment))
+				run++;
+			path.append(segment);
+			if (run > 3)
+				path.append("(x").append(run).append(")");
+			else
+				for (int j = 1; j < run; j++)
+					path.append(segment);
+			i = i + run;
+		}
+		return path.toString();
+	}
+
+	/**
+	 * Find the first difference between the two given values.
+	 *
+	 * @param actual the actual value
+	 * @param expected the expected value
+	 * @return the first difference, or <code>null</code> if the two values
+	 *         are shown the same
+	 */
+	static Difference of(Object actual, Object expected) {
+		return new Walk().start(actual, expected);
+	}
+
+	/**
+	 * Find the first difference between the data generated by the two
+	 * given <code>Iterable</code>s.
+	 *
+	 * @param actual the actual data
+	 * @param expected the expected data
+	 * @return the first difference, or <code>null</code> if the data are
+	 *         shown the same
+	 */
+	static Difference ofIterables(Iterable<?> actual, Iterable<?> expected) {
+		return new Walk().run(new IteratorFrame(actual.iterator(),
+				expected.iterator()));
+	}
+
+	/**
+	 * Find the first difference between the data generated by the two
+	 * given <code>Traversal</code>s.
+	 *
+	 * @param actual the actual data
+	 * @param expected the expected data
+	 * @return the first difference, or <code>null</code> if the data are
+	 *         shown the same
+	 */
+	static Difference ofTraversals(Traversal<?> actual, Traversal<?> expected) {
+		return new Walk().run(new TraversalFrame(actual, expected));
+	}
+
+	/**
+	 * Produce the <code>String</code> that shows the difference: its path,
+	 * and the actual and the expected value there side by side.
+	 *
+	 * @return the difference as it appears in the test report
+	 */
+	String render() {
+		String tolerance = "";
+		if (!Double.isNaN(this.tolerance))
+			tolerance = " (relative tolerance " + this.tolerance + ")";
+		return "first difference at " + this.path + ": " + this.reason
+				+ tolerance + "\n"
+				+ "actual:                                 expected:\n"
+				+ Printer.combineActualExpected(show(this.actual),
+						show(this.expected));
+	}
+
+	/**
+	 * Produce the <code>String</code> that shows a value at a difference.
+	 *
+	 * @param value the value, or <code>MISSING</code>
+	 * @return the value within the limits of the area around a difference
+	 */
+	private static String show(Object value) {
+		if (value == MISSING)
+			return "(no element)";
+		return Printer.produceString(value, AREA);
+	}
+
+	/* ---------------------- THE SIDE BY SIDE WALK ---------------------- */
+	/*
+	 * <<NOTE>>
+	 * As in the Inspector, the walk does not recur on the components of the
+	 * values: every pair of objects with components is a Frame on an
+	 * explicit stack, that produces the pairs of its components one at a
+	 * time. Unlike in the Inspector, a frame stays on the stack until it is
+	 * done, because the frames on the stack make up the path to the
+	 * difference; the path is only built once a difference is found.
+	 */
+
+	/**
+	 * One walk over two values, with the pairs of objects already seen.
+	 */
+	private static final class Walk {
+
+		/** the frames of the pairs of objects whose components are walked */
+		private final ArrayList<Frame> stack = new ArrayList<Frame>();
+
+		/** the pairs of objects seen -- a pair seen again is not walked */
+		private final IdentityPairSet visited = new IdentityPairSet();
+
+		/** what differs, set when two objects differ */
+		private String reason;
+
+		/**
+		 * Walk the two given values.
+		 *
+		 * @param actual the actual value
+		 * @param expected the expected value
+		 * @return the first difference, or <code>null</code>
+		 */
+		Difference start(Object actual, Object expected) {
+			Frame frame = this.enter(actual, expected);
+			if (frame == DIFFERENT)
+				return new Difference("this", this.reason, actual, expected);
+			if (frame == null)
+				return null;
+			return this.run(frame);
+		}
+
+		/**
+		 * Walk the components produced by the given frame.
+		 *
+		 * @param first the frame that starts the walk
+		 * @return the first difference, or <code>null</code>
+		 */
+		Difference run(Frame first) {
+			this.stack.add(first);
+			while (!this.stack.isEmpty()) {
+				int top = this.stack.size() - 1;
+				Frame frame = this.stack.get(top);
+				if (!frame.next()) {
+					this.stack.remove(top);
+					continue;
+				}
+				Frame child = this.enter(frame.item1, frame.item2);
+				if (child == DIFFERENT)
+					return new Difference(this.path(), this.reason,
+							frame.item1, frame.item2);
+				if (child != null)
+					this.stack.add(child);
+			}
+			return null;
+		}
+
+		/**
+		 * Produce the path to the pair of components produced last by the
+		 * frame on the top of the stack.
+		 *
+		 * @return the path from the compared values
+		 */
+		private String path() {
+			ArrayList<String> segments = new ArrayList<String>();
+			for (Frame frame : this.stack)
+				segments.add(frame.segment());
+			return Difference.path(segments);
+		}
+
+		/**
+		 * Start the walk of the two given objects: compare them right away
+		 * if they are shown whole, or produce the frame for their
+		 * components.
+		 *
+		 * @param obj1 the actual object
+		 * @param obj2 the expected object
+		 * @return <code>null</code> if they are shown the same,
+		 *         <code>DIFFERENT</code> if they are not, or the frame for
+		 *         their components
+		 */
+		private Frame enter(Object obj1, Object obj2) {
+			if (obj1 == MISSING || obj2 == MISSING)
+				return this.differ(obj1 == MISSING ? "no such actual element"
+						: "no such expected element");
+			if (obj1 == obj2)
+				return null;
+			if (obj1 == null || obj2 == null)
+				return this.differ("one value is null");
+			if (obj1.getClass() != obj2.getClass())
+				return this.differ("different classes");
+			if (isShownWhole(obj1))
+				return obj1.equals(obj2) ? null : this.differ("different values");
+			if (!this.visited.add(obj1, obj2))
+				return null;
+
+			if (obj1.getClass().isArray()) {
+				int length = Array.getLength(obj1);
+				if (Array.getLength(obj2) != length)
+					return this.differ("different lengths");
+				return new ArrayFrame(obj1, obj2, length);
+			}
+			if (obj1 instanceof Set
+					&& obj1.getClass().getName().startsWith("java.util"))
+				return this.compareSets((Set<?>) obj1, (Set<?>) obj2);
+			if (obj1 instanceof Iterable
+					&& obj1.getClass().getName().startsWith("java.util"))
+				return new IteratorFrame(((Iterable<?>) obj1).iterator(),
+						((Iterable<?>) obj2).iterator());
+			if (obj1 instanceof Map
+					&& obj1.getClass().getName().startsWith("java.util")) {
+				if (((Map<?, ?>) obj1).size() != ((Map<?, ?>) obj2).size())
+					return this.differ("different sizes");
+				return new MapFrame((Map<?, ?>) obj1, (Map<?, ?>) obj2);
+			}
+			return new FieldsFrame(Reflector.layoutOf(obj1.getClass()), obj1,
+					obj2);
+		}
+
+		/**
+		 * Compare two sets of the Java Collection library by their elements,
+		 * as the <code>Inspector</code> does, and not in the order in which
+		 * they are shown.
+		 *
+		 * @param set1 the actual set
+		 * @param set2 the expected set
+		 * @return <code>null</code> if they have the same elements,
+		 *         <code>DIFFERENT</code> otherwise
+		 */
+		private Frame compareSets(Set<?> set1, Set<?> set2) {
+			if (set1.size() != set2.size())
+				return this.differ("different sizes");
+			for (Object item : set1)
+				if (!set2.contains(item))
+					return this.differ("different elements");
+			return null;
+		}
+
+		/**
+		 * Record what differs.
+		 *
+		 * @param why what differs
+		 * @return <code>DIFFERENT</code>
+		 */
+		private Frame differ(String why) {
+			this.reason = why;
+			return DIFFERENT;
+		}
+	}
+
+	/**
+	 * Is the given object shown whole by the <code>Printer</code>, rather
+	 * than by its components?
+	 *
+	 * @param obj an object that is not <code>null</code>
+	 * @return <code>true</code> if it is compared by <code>equals</code>
+	 */
+	private static boolean isShownWhole(Object obj) {
+		String name = obj.getClass().getName();
+		return obj instanceof String || obj instanceof Enum
+				|| obj instanceof java.awt.Color
+				|| obj instanceof java.util.Random
+				|| Inspector.isWrapperClass(name)
+				|| Inspector.isWorldImage(name) || Inspector.isOurCanvas(name)
+				|| Inspector.isTunesPackage(name)
+				|| Printer.toIndentedStringMethod(obj) != null;
+	}
+
+	/** the result of <code>enter</code> for two objects that differ */
+	private static final Frame DIFFERENT = new Frame() {
+		boolean next() {
+			return false;
+		}
+
+		String segment() {
+			return "";
+		}
+	};
+
+	/**
+	 * The pairs of components of two objects that remain to be walked.
+	 */
+	private static abstract class Frame {
+		/** the pair of components produced last */
+		Object item1;
+		Object item2;
+
+		/**
+		 * Produce the next pair of components in <code>item1, item2</code>.
+		 *
+		 * @return <code>false</code> if there are no more pairs
+		 */
+		abstract boolean next();
+
+		/**
+		 * @return the segment of the path that leads to the pair of
+		 *         components produced last
+		 */
+		abstract String segment();
+	}
+
+	/**
+	 * The pairs of elements of two arrays of the same class and length.
+	 */
+	private static final class ArrayFrame extends Frame {
+		private final Object array1;
+		private final Object array2;
+		private final int length;
+		private int i = 0;
+
+		ArrayFrame(Object array1, Object array2, int length) {
+			this.array1 = array1;
+			this.array2 = array2;
+			this.length = length;
+		}
+
+		boolean next() {
+			if (this.i == this.length)
+				return false;
+			this.item1 = Array.get(this.array1, this.i);
+			this.item2 = Array.get(this.array2, this.i);
+			this.i++;
+			return true;
+		}
+
+		String segment() {
+			return "[" + (this.i - 1) + "]";
+		}
+	}
+
+	/**
+	 * The pairs of data elements generated by two <code>Iterator</code>s;
+	 * the element that the shorter one does not have is
+	 * <code>MISSING</code>.
+	 */
+	private static final class IteratorFrame extends Frame {
+		private final Iterator<?> it1;
+		private final Iterator<?> it2;
+		private int n = 0;
+
+		IteratorFrame(Iterator<?> it1, Iterator<?> it2) {
+			this.it1 = it1;
+			this.it2 = it2;
+		}
+
+		boolean next() {
+			if (!this.it1.hasNext() && !this.it2.hasNext())
+				return false;
+			this.item1 = this.it1.hasNext() ? this.it1.next() : MISSING;
+			this.item2 = this.it2.hasNext() ? this.it2.next() : MISSING;
+			this.n++;
+			return true;
+		}
+
+		String segment() {
+			return "[" + (this.n - 1) + "]";
+		}
+	}
+
+	/**
+	 * The pairs of data elements generated by two <code>Traversal</code>s;
+	 * the element that the shorter one does not have is
+	 * <code>MISSING</code>.
+	 */
+	private static final class TraversalFrame extends Frame {
+		private Traversal<?> tr1;
+		private Traversal<?> tr2;
+		private int n = 0;
+
+		TraversalFrame(Traversal<?> tr1, Traversal<?> tr2) {
+			this.tr1 = tr1;
+			this.tr2 = tr2;
+		}
+
+		boolean next() {
+			if (this.tr1.isEmpty() && this.tr2.isEmpty())
+				return false;
+			this.item1 = MISSING;
+			this.item2 = MISSING;
+			if (!this.tr1.isEmpty()) {
+				this.item1 = this.tr1.getFirst();
+				this.tr1 = this.tr1.getRest();
+			}
+			if (!this.tr2.isEmpty()) {
+				this.item2 = this.tr2.getFirst();
+				this.tr2 = this.tr2.getRest();
+			}
+			this.n++;
+			return true;
+		}
+
+		String segment() {
+			return "[" + (this.n - 1) + "]";
+		}
+	}
+
+	/**
+	 * The pairs of values of two <code>Map</code>s of the same size, for
+	 * every key of the first map; the value of a key that the second map
+	 * does not have is <code>MISSING</code>.
+	 */
+	private static final class MapFrame extends Frame {
+		private final Map<?, ?> map2;
+		private final Iterator<? extends Map.Entry<?, ?>> entries;
+		private Object key;
+
+		MapFrame(Map<?, ?> map1, Map<?, ?> map2) {
+			this.map2 = map2;
+			this.entries = map1.entrySet().iterator();
+		}
+
+		boolean next() {
+			if (!this.entries.hasNext())
+				return false;
+			Map.Entry<?, ?> entry = this.entries.next();
+			this.key = entry.getKey();
+			this.item1 = entry.getValue();
+			this.item2 = this.map2.containsKey(this.key)
+					? this.map2.get(this.key) : MISSING;
+			return true;
+		}
+
+		String segment() {
+			if (this.key instanceof String)
+				return "[\"" + this.key + "\"]";
+			if (this.key == null || isShownWhole(this.key))
+				return "[" + this.key + "]";
+			return "[" + this.key.getClass().getName() + " key]";
+		}
+	}
+
+	/**
+	 * The pairs of values of all fields of two objects of the same class.
+	 */
+	private static final class FieldsFrame extends Frame {
+		private final Field[] fields;
+		private final Object obj1;
+		private final Object obj2;
+		private int i = 0;
+
+		FieldsFrame(FieldLayout layout, Object obj1, Object obj2) {
+			this.fields = layout.fields;
+			this.obj1 = obj1;
+			this.obj2 = obj2;
+		}
+
+		boolean next() {
+			while (this.i < this.fields.length) {
+				Field field = this.fields[this.i++];
+				try {
+					this.item1 = field.get(this.obj1);
+					this.item2 = field.get(this.obj2);
+					return true;
+				} catch (IllegalAccessException e) {
+					// a field that cannot be read is not shown either
+				}
+			}
+			return false;
+		}
+
+		String segment() {
+			return "." + this.fields[this.i - 1].getName();
+		}
+	}
+}
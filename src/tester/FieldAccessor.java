@@ -0,0 +1,402 @@
+package tester;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * A pre-built reader for one field of a class, used by the
+ * <code>Inspector</code> in place of <code>Field.get</code>.
+ * </P>
+ * <P>
+ * The reader is a <code>MethodHandle</code> getter adapted to take an
+ * <code>Object</code>, built once per field when the
+ * <code>FieldLayout</code> of the class is computed. Fields of primitive
+ * types are read and compared as primitive values, without boxing:
+ * <code>double</code> and <code>float</code> values are compared within
+ * the current tolerance, all other primitive values with <code>==</code>,
+ * exactly as the <code>Inspector</code> compares their wrapper classes.
+ * </P>
+ * <P>
+ * A <CODE>{@link ReferenceAccessor ReferenceAccessor}</CODE> reads the
+ * value of a field of a reference type, a
+ * <CODE>{@link PrimitiveAccessor PrimitiveAccessor}</CODE> compares the
+ * values of a field of a primitive type, and an
+ * <CODE>{@link ExactAccessor ExactAccessor}</CODE> also hashes the value
+ * of a field of an exact primitive type.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+abstract class FieldAccessor {
+
+	/** the lookup used to unreflect the (already accessible) fields */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/** the field this accessor reads */
+	final Field field;
+
+	/**
+	 * Constructor: record the field.
+	 *
+	 * @param field the field this accessor reads
+	 */
+	FieldAccessor(Field field) {
+		this.field = field;
+	}
+
+	/**
+	 * The accessor of a field of a reference type: its values are read by
+	 * {@link #get get} and compared by the <code>Inspector</code>.
+	 */
+	static final class ReferenceAccessor extends FieldAccessor {
+		private final MethodHandle getter;
+
+		ReferenceAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		/**
+		 * Produce the value of this field in the given object.
+		 *
+		 * @param obj the object to read
+		 * @return the value of the field
+		 */
+		Object get(Object obj) {
+			try {
+				return (Object) this.getter.invokeExact(obj);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/**
+	 * The accessor of a field of a primitive type: its values are compared
+	 * by {@link #same same}, without boxing.
+	 */
+	abstract static class PrimitiveAccessor extends FieldAccessor {
+
+		PrimitiveAccessor(Field f) {
+			super(f);
+		}
+
+		/**
+		 * Compare the values of this field in the two given objects.
+		 *
+		 * @param inspector the <code>Inspector</code> that compares inexact
+		 *            values within its tolerance
+		 * @param obj1 the first object
+		 * @param obj2 the second object
+		 * @return <code>true</code> if the two values are the same
+		 */
+		abstract boolean same(Inspector inspector, Object obj1, Object obj2);
+	}
+
+	/**
+	 * The accessor of a field of an exact primitive type -- any primitive
+	 * type but <code>double</code> and <code>float</code> -- whose values
+	 * can also be hashed.
+	 */
+	abstract static class ExactAccessor extends PrimitiveAccessor {
+
+		ExactAccessor(Field f) {
+			super(f);
+		}
+
+		/**
+		 * Produce a hash of the value of this field in the given object:
+		 * equal values produce equal hashes.
+		 *
+		 * @param obj the object to read
+		 * @return the hash of the value of the field
+		 */
+		abstract long hash(Object obj);
+	}
+
+	/**
+	 * Build the accessors for all the given (accessible) fields.
+	 *
+	 * @param fields the fields of one class
+	 * @return the accessors in the same order as the fields, or
+	 *         <code>null</code> if a getter cannot be built for some field
+	 *         and the fields have to be read reflectively
+	 */
+	static FieldAccessor[] accessorsFor(Field[] fields) {
+		FieldAccessor[] accessors = new FieldAccessor[fields.length];
+		try {
+			for (int i = 0; i < fields.length; i++)
+				accessors[i] = accessorFor(fields[i]);
+			return accessors;
+		} catch (IllegalAccessException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Build the accessor for the given field.
+	 *
+	 * @param f an accessible field
+	 * @return the accessor that matches the type of the field
+	 * @throws IllegalAccessException if the getter cannot be built
+	 */
+	private static FieldAccessor accessorFor(Field f)
+			throws IllegalAccessException {
+		Class<?> type = f.getType();
+		MethodHandle getter = LOOKUP.unreflectGetter(f);
+
+		if (!type.isPrimitive())
+			return new ReferenceAccessor(f,
+					getter.asType(MethodType.methodType(Object.class,
+							Object.class)));
+
+		getter = getter.asType(MethodType.methodType(type, Object.class));
+		if (type == int.class)
+			return new IntAccessor(f, getter);
+		if (type == double.class)
+			return new DoubleAccessor(f, getter);
+		if (type == boolean.class)
+			return new BooleanAccessor(f, getter);
+		if (type == char.class)
+			return new CharAccessor(f, getter);
+		if (type == long.class)
+			return new LongAccessor(f, getter);
+		if (type == float.class)
+			return new FloatAccessor(f, getter);
+		if (type == short.class)
+			return new ShortAccessor(f, getter);
+		return new ByteAccessor(f, getter);
+	}
+
+	/**
+	 * Rethrow the given <code>Throwable</code> thrown by a getter -- a getter
+	 * invoked on a non-null object of the right class can only throw an
+	 * <code>Error</code>.
+	 *
+	 * @param t the <code>Throwable</code> thrown by a getter
+	 * @return never returns
+	 */
+	static RuntimeException rethrow(Throwable t) {
+		if (t instanceof Error)
+			throw (Error) t;
+		if (t instanceof RuntimeException)
+			throw (RuntimeException) t;
+		throw new RuntimeException(t);
+	}
+
+	/* ------------------------------------------------------------------ */
+	/* -------------- The accessors for each kind of field -------------- */
+	/* ------------------------------------------------------------------ */
+
+	/** compares the values of an <code>int</code> field */
+	private static final class IntAccessor extends ExactAccessor {
+		private final MethodHandle getter;
+
+		IntAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return (int) this.getter.invokeExact(obj1)
+						== (int) this.getter.invokeExact(obj2);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+
+		long hash(Object obj) {
+			try {
+				return (int) this.getter.invokeExact(obj);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/** compares the values of a <code>long</code> field */
+	private static final class LongAccessor extends ExactAccessor {
+		private final MethodHandle getter;
+
+		LongAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return (long) this.getter.invokeExact(obj1)
+						== (long) this.getter.invokeExact(obj2);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+
+		long hash(Object obj) {
+			try {
+				return (long) this.getter.invokeExact(obj);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/** compares the values of a <code>short</code> field */
+	private static final class ShortAccessor extends ExactAccessor {
+		private final MethodHandle getter;
+
+		ShortAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return (short) this.getter.invokeExact(obj1)
+						== (short) this.getter.invokeExact(obj2);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+
+		long hash(Object obj) {
+			try {
+				return (short) this.getter.invokeExact(obj);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/** compares the values of a <code>byte</code> field */
+	private static final class ByteAccessor extends ExactAccessor {
+		private final MethodHandle getter;
+
+		ByteAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return (byte) this.getter.invokeExact(obj1)
+						== (byte) this.getter.invokeExact(obj2);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+
+		long hash(Object obj) {
+			try {
+				return (byte) this.getter.invokeExact(obj);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/** compares the values of a <code>char</code> field */
+	private static final class CharAccessor extends ExactAccessor {
+		private final MethodHandle getter;
+
+		CharAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return (char) this.getter.invokeExact(obj1)
+						== (char) this.getter.invokeExact(obj2);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+
+		long hash(Object obj) {
+			try {
+				return (char) this.getter.invokeExact(obj);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/** compares the values of a <code>boolean</code> field */
+	private static final class BooleanAccessor extends ExactAccessor {
+		private final MethodHandle getter;
+
+		BooleanAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return (boolean) this.getter.invokeExact(obj1)
+						== (boolean) this.getter.invokeExact(obj2);
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+
+		long hash(Object obj) {
+			try {
+				return ((boolean) this.getter.invokeExact(obj)) ? 1L : 0L;
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/** compares the values of a <code>double</code> field within tolerance */
+	private static final class DoubleAccessor extends PrimitiveAccessor {
+		private final MethodHandle getter;
+
+		DoubleAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return inspector.isSameDouble(
+						(double) this.getter.invokeExact(obj1),
+						(double) this.getter.invokeExact(obj2));
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/** compares the values of a <code>float</code> field within tolerance */
+	private static final class FloatAccessor extends PrimitiveAccessor {
+		private final MethodHandle getter;
+
+		FloatAccessor(Field f, MethodHandle getter) {
+			super(f);
+			this.getter = getter;
+		}
+
+		boolean same(Inspector inspector, Object obj1, Object obj2) {
+			try {
+				return inspector.isSameFloat(
+						(float) this.getter.invokeExact(obj1),
+						(float) this.getter.invokeExact(obj2));
+			} catch (Throwable t) {
+				throw rethrow(t);
+			}
+		}
+	}
+}
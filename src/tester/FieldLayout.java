@@ -0,0 +1,64 @@
+package tester;
+
+import java.lang.reflect.Field;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The reflective description of one class as seen by the
+ * <code>Inspector</code>, the <code>Printer</code> and the
+ * <code>UDTGenerator</code>: the name of the class, the name of its package
+ * (as classified by the <code>Reflector</code>) and all fields that take
+ * part in the comparison and in the display of its instances.
+ * </P>
+ * <P>
+ * A layout is computed once per class by the <code>Reflector</code> and
+ * shared by all threads; all fields have already been made accessible.
+ * Nothing in a layout may be modified after it has been built.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class FieldLayout {
+
+	/** the class this layout describes */
+	final Class<?> layoutClass;
+
+	/** the fully qualified name of the class */
+	final String className;
+
+	/** the package name as classified by the <code>Reflector</code> */
+	final String packageName;
+
+	/**
+	 * all non-static, non-volatile, non-transient fields declared in the class
+	 * and its superclasses, superclass fields first -- do not modify
+	 */
+	final Field[] fields;
+
+	/**
+	 * the readers of the fields, in the same order as the fields, or
+	 * <code>null</code> if the fields have to be read reflectively
+	 */
+	final FieldAccessor[] accessors;
+
+	/**
+	 * Constructor: record the reflective information about the given class.
+	 *
+	 * @param layoutClass the class this layout describes
+	 * @param packageName the package name as classified by the
+	 *            <code>Reflector</code>
+	 * @param fields the accessible fields of the class
+	 */
+	FieldLayout(Class<?> layoutClass, String packageName, Field[] fields) {
+		this.layoutClass = layoutClass;
+		this.className = layoutClass.getName();
+		this.packageName = packageName;
+		this.fields = fields;
+		this.accessors = FieldAccessor.accessorsFor(fields);
+	}
+}
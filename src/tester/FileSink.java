@@ -0,0 +1,61 @@
+package tester;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The <CODE>{@link ResultSink ResultSink}</CODE> that writes every test
+ * result to a file as soon as the test has been evaluated, in the same
+ * form as the <CODE>{@link ConsoleSink ConsoleSink}</CODE>.
+ * </P>
+ * <P>
+ * The file is flushed at the end of every run and stays open, so that
+ * the results of several <code>Examples</code> classes can be written to
+ * the same file; <code>close</code> it when all tests have been run.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public class FileSink extends ConsoleSink {
+
+	/**
+	 * Constructor: write the failed tests to the given file, replacing its
+	 * contents.
+	 *
+	 * @param file the file where the results are written
+	 * @throws IOException if the file cannot be opened for writing
+	 */
+	public FileSink(File file) throws IOException {
+		this(file, false);
+	}
+
+	/**
+	 * Constructor: write the results to the given file, replacing its
+	 * contents.
+	 *
+	 * @param file the file where the results are written
+	 * @param showSuccesses <code>true</code> if successful tests are
+	 *          written too
+	 * @throws IOException if the file cannot be opened for writing
+	 */
+	public FileSink(File file, boolean showSuccesses) throws IOException {
+		super(new PrintStream(new BufferedOutputStream(
+				new FileOutputStream(file)), false, "UTF-8"), showSuccesses);
+	}
+
+	/**
+	 * Close the file: no more results may be written.
+	 */
+	public void close() {
+		this.out.close();
+	}
+}
@@ -0,0 +1,200 @@
+package tester;
+
+import java.util.Arrays;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The set of pairs of objects the <code>Inspector</code> has already started
+ * to compare. When the same pair is seen again the comparison loop stops:
+ * this is how circular data are handled.
+ * </P>
+ * <P>
+ * The pairs are unordered -- having seen <code>(obj1, obj2)</code> is the
+ * same as having seen <code>(obj2, obj1)</code> -- and the objects are
+ * compared by identity, so two pairs that happen to share their identity
+ * hash codes are still told apart.
+ * </P>
+ * <P>
+ * The set is an open-addressing hash table over parallel arrays: the
+ * combined identity hash codes of the pair, the two objects, and the
+ * generation in which the slot was filled. Adding a pair allocates nothing
+ * unless the table has to grow, and <code>clear</code> starts a new
+ * generation and lets go of the objects of the small table. A table that
+ * grew during one comparison is dropped at the next <code>clear</code>, so
+ * no comparison keeps its memory or its objects for the rest of the test
+ * run.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class IdentityPairSet {
+
+	/** the number of slots in a new table -- always a power of two */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** the combined identity hash codes of the pair in each slot */
+	private long[] keys;
+
+	/** the two objects of the pair in each slot, at index 2i and 2i+1 */
+	private Object[] pairs;
+
+	/** the generation in which each slot was filled */
+	private int[] stamps;
+
+	/** the current generation -- slots with other stamps are empty */
+	private int generation = 1;
+
+	/** the number of pairs added in the current generation */
+	private int size;
+
+	/** the number of bits used to index the table */
+	private int bits;
+
+	/**
+	 * Constructor: an empty set with the initial capacity.
+	 */
+	IdentityPairSet() {
+		this.allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Remove all pairs from the set.
+	 */
+	void clear() {
+		if (this.keys.length > INITIAL_CAPACITY) {
+			this.size = 0;
+			this.allocate(INITIAL_CAPACITY);
+			return;
+		}
+		// drop the objects of the last comparison: at most 128 stores
+		if (this.size > 0)
+			Arrays.fill(this.pairs, null);
+		this.size = 0;
+		if (++this.generation == 0) {
+			// the stamps wrapped around: no stale stamp may look current
+			Arrays.fill(this.stamps, 0);
+			this.generation = 1;
+		}
+	}
+
+	/**
+	 * Add the unordered pair of the two given objects to the set.
+	 *
+	 * @param obj1 the first object of the pair
+	 * @param obj2 the second object of the pair
+	 * @return <code>false</code> if the pair has already been added,
+	 *         <code>true</code> if it is new
+	 */
+	boolean add(Object obj1, Object obj2) {
+		long key = keyOf(obj1, obj2);
+		int mask = this.keys.length - 1;
+		int i = this.indexOf(key);
+		while (this.stamps[i] == this.generation) {
+			if (this.keys[i] == key && this.holds(i, obj1, obj2))
+				return false;
+			i = (i + 1) & mask;
+		}
+		this.put(i, key, obj1, obj2);
+
+		if (++this.size * 2 > this.keys.length)
+			this.grow();
+		return true;
+	}
+
+	/**
+	 * Does the given (occupied) slot hold the given pair, in either order?
+	 *
+	 * @param i the index of the slot
+	 * @param obj1 the first object of the pair
+	 * @param obj2 the second object of the pair
+	 * @return <code>true</code> if the slot holds the same two objects
+	 */
+	private boolean holds(int i, Object obj1, Object obj2) {
+		Object a = this.pairs[2 * i];
+		Object b = this.pairs[2 * i + 1];
+		return (a == obj1 && b == obj2) || (a == obj2 && b == obj1);
+	}
+
+	/**
+	 * Fill the given slot in the current generation.
+	 *
+	 * @param i the index of an empty slot
+	 * @param key the combined identity hash codes of the pair
+	 * @param obj1 the first object of the pair
+	 * @param obj2 the second object of the pair
+	 */
+	private void put(int i, long key, Object obj1, Object obj2) {
+		this.keys[i] = key;
+		this.pairs[2 * i] = obj1;
+		this.pairs[2 * i + 1] = obj2;
+		this.stamps[i] = this.generation;
+	}
+
+	/**
+	 * Double the capacity of the table and re-insert the current pairs.
+	 */
+	private void grow() {
+		long[] oldKeys = this.keys;
+		Object[] oldPairs = this.pairs;
+		int[] oldStamps = this.stamps;
+		int oldGeneration = this.generation;
+
+		this.allocate(oldKeys.length * 2);
+		int mask = this.keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldStamps[j] == oldGeneration) {
+				int i = this.indexOf(oldKeys[j]);
+				while (this.stamps[i] == this.generation)
+					i = (i + 1) & mask;
+				this.put(i, oldKeys[j], oldPairs[2 * j], oldPairs[2 * j + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Replace the table with an empty one of the given capacity.
+	 *
+	 * @param capacity the number of slots -- a power of two
+	 */
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.pairs = new Object[2 * capacity];
+		this.stamps = new int[capacity];
+		this.generation = 1;
+		this.bits = Integer.numberOfTrailingZeros(capacity);
+	}
+
+	/**
+	 * Produce the slot where the search for the given key starts.
+	 *
+	 * @param key the combined identity hash codes of a pair
+	 * @return the index of the home slot for the key
+	 */
+	private int indexOf(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - this.bits));
+	}
+
+	/**
+	 * Combine the identity hash codes of the two objects, smaller one first,
+	 * so that both orders of the pair produce the same key.
+	 *
+	 * @param obj1 the first object of the pair
+	 * @param obj2 the second object of the pair
+	 * @return the symmetric key for the pair
+	 */
+	private static long keyOf(Object obj1, Object obj2) {
+		int h1 = System.identityHashCode(obj1);
+		int h2 = System.identityHashCode(obj2);
+		if (h1 > h2) {
+			int h = h1;
+			h1 = h2;
+			h2 = h;
+		}
+		return ((long) h1 << 32) | (h2 & 0xFFFFFFFFL);
+	}
+}
@@ -19,30 +19,75 @@ import java.util.*;
  */
 public class Inspector {
 
-	/** the tolerance for comparison of relative difference of inexact numbers */
-	protected static double TOLERANCE = 0.001;
+	/**
+	 * the tolerance for comparison of relative difference of inexact numbers
+	 * 
+	 * @deprecated the tolerance is kept by the <code>Tester</code> that
+	 *             makes the comparisons; this field is no longer read or
+	 *             written by them, and stays only so that existing code
+	 *             compiles
+	 */
+	@Deprecated
+	protected static double TOLERANCE = ComparisonContext.DEFAULT_TOLERANCE;
 
 	/** current indentation level for pretty-printing */
 	protected static String INDENT = "  ";
 
 	/**
-	 * a hashmap of pairs of hashcodes for two objects that are being compared:
-	 * if the same pair is compared again, the loop of comparisons stops and
-	 * produces <code>true</code>
+	 * set to <code>true</code> if comparison involved inexact numbers
+	 * 
+	 * @deprecated recorded by the <code>Tester</code> that makes the
+	 *             comparisons, and no longer here, as for
+	 *             <CODE>{@link #TOLERANCE TOLERANCE}</CODE>
 	 */
-	private HashMap<Integer, Integer> hashmap = new HashMap<Integer, Integer>();
-
-	/** set to <code>true</code> if comparison involved inexact numbers */
+	@Deprecated
 	protected static boolean INEXACT_COMPARED = false;
 
-	/** set to <code>true</code> if comparison of inexact numbers is expected */
+	/**
+	 * set to <code>true</code> if comparison of inexact numbers is expected
+	 * 
+	 * @deprecated recorded by the <code>Tester</code> that makes the
+	 *             comparisons, and no longer here, as for
+	 *             <CODE>{@link #TOLERANCE TOLERANCE}</CODE>
+	 */
+	@Deprecated
 	protected static boolean INEXACT_ALLOWED = false;
 
 	/**
-	 * Constructor: For the given instance get its <code>Class</code> and
-	 * fields.
+	 * the tolerance, the record of inexact comparisons and the pairs of
+	 * objects seen by the comparisons made by this <code>Inspector</code>
+	 */
+	final ComparisonContext context;
+
+	/**
+	 * <code>true</code> while a comparison is made again to find where it
+	 * fails: the frames stay on the stack until they are done, so that they
+	 * make up the path to the failure
+	 */
+	private boolean tracking = false;
+
+	/** the first difference found while tracking, or <code>null</code> */
+	private Difference mismatch = null;
+
+	/** computes the fingerprints, made by the first one */
+	private StructuralHash structuralHash = null;
+
+	/**
+	 * Constructor: an <code>Inspector</code> with its own comparison context.
 	 */
 	public Inspector() {
+		this(new ComparisonContext());
+	}
+
+	/**
+	 * Constructor: an <code>Inspector</code> that records its comparisons in
+	 * the given context -- typically the one owned by a <code>Tester</code>.
+	 * 
+	 * @param context
+	 *            the context for the comparisons
+	 */
+	Inspector(ComparisonContext context) {
+		this.context = context;
 	}
 
 	/**
@@ -53,7 +98,7 @@ public class Inspector {
 	 *         and the inexact comparison was not allowed
 	 */
 	protected boolean inexactViolation() {
-		return INEXACT_COMPARED && !INEXACT_ALLOWED;
+		return this.context.inexactCompared && !this.context.inexactAllowed;
 	}
 
 	/**
@@ -63,7 +108,7 @@ public class Inspector {
 	 * <P>
 	 * Consider inexact numbers (types <code>double</code>, <code>float</code>,
 	 * <code>Double</code>, <code>Float</code>) to be the same if the relative
-	 * difference is below <code>TOLERANCE</code>
+	 * difference is below the tolerance
 	 * </P>
 	 * <P>
 	 * Use <code>==</code> for all other primitive types and their wrapper
@@ -102,11 +147,58 @@ public class Inspector {
 	 * @return <code>true<code> if the two given object are the same
 	 */
 	public <T> boolean isSame(T obj1, T obj2) {
-		this.hashmap.clear();
-		INEXACT_COMPARED = false;
+		this.context.visited.clear();
+		this.context.inexactCompared = false;
 		return isSamePrivate(obj1, obj2);
 	}
 
+	/**
+	 * Produce the structural fingerprint of the given object: two objects
+	 * with different usable fingerprints are never the same. The
+	 * fingerprint only covers a bounded part of the object graph.
+	 * 
+	 * @param obj
+	 *            the object to fingerprint
+	 * @return the fingerprint, or <code>StructuralHash.NONE</code> if it
+	 *         cannot be used to reject a comparison
+	 */
+	protected long fingerprint(Object obj) {
+		if (this.structuralHash == null)
+			this.structuralHash = new StructuralHash(this);
+		return this.structuralHash.of(obj);
+	}
+
+	/**
+	 * Compare the two given objects for extensional equality as
+	 * <code>isSame</code> does, but first reject the objects whose
+	 * fingerprints differ. The fingerprint of the first object is computed
+	 * by the caller, so that it can be compared with several objects.
+	 * 
+	 * @param <T>
+	 *            the type of the objects being compared
+	 * @param obj1
+	 *            typically the actual value
+	 * @param fingerprint1
+	 *            the <code>fingerprint</code> of the first object
+	 * @param obj2
+	 *            typically the expected value
+	 * @return <code>true<code> if the two given object are the same
+	 */
+	protected <T> boolean isSameWithFingerprint(T obj1, long fingerprint1,
+			T obj2) {
+		if (fingerprint1 != StructuralHash.NONE) {
+			long fingerprint2 = this.fingerprint(obj2);
+			if (fingerprint2 != StructuralHash.NONE
+					&& fingerprint1 != fingerprint2) {
+				// the comparison would not have seen any inexact numbers
+				this.context.visited.clear();
+				this.context.inexactCompared = false;
+				return false;
+			}
+		}
+		return this.isSame(obj1, obj2);
+	}
+
 	/**
 	 * Set up the parameters for inexact test: report failure if tolerance is
 	 * set below 0
@@ -116,10 +208,10 @@ public class Inspector {
 	 * @return <code>false</code> if tolerance is negative
 	 */
 	protected boolean inexactTest(double tolerance) {
-		INEXACT_COMPARED = false;
-		INEXACT_ALLOWED = true;
+		this.context.inexactCompared = false;
+		this.context.inexactAllowed = true;
 		// check if the provided tolerance is > 0 - fail if not.
-		TOLERANCE = tolerance;
+		this.context.tolerance = tolerance;
 		return (tolerance < 0);
 	}
 
@@ -130,8 +222,8 @@ public class Inspector {
 	 * @return <code>true<code>
 	 */
 	protected boolean exactTest() {
-		INEXACT_COMPARED = false;
-		INEXACT_ALLOWED = false;
+		this.context.inexactCompared = false;
+		this.context.inexactAllowed = false;
 		return true;
 	}
 
@@ -145,9 +237,9 @@ public class Inspector {
 	 * @return <code>true<code> if the two given <code>Iterable</code>object are the same
 	 */
 	public <T> boolean isSameIterable(Iterable<T> obj1, Iterable<T> obj2) {
-		this.hashmap.clear();
-		INEXACT_ALLOWED = false;
-		INEXACT_COMPARED = false;
+		this.context.visited.clear();
+		this.context.inexactAllowed = false;
+		this.context.inexactCompared = false;
 		return isSameIterablePrivate(obj1, obj2);
 	}
 
@@ -161,9 +253,9 @@ public class Inspector {
 	 * @return <code>true<code> if the two given object represent the same set
 	 */
 	public <T> boolean isSameSet(Set<T> obj1, Set<T> obj2) {
-		this.hashmap.clear();
-		INEXACT_ALLOWED = false;
-		INEXACT_COMPARED = false;
+		this.context.visited.clear();
+		this.context.inexactAllowed = false;
+		this.context.inexactCompared = false;
 		return isSameSetPrivate(obj1, obj2);
 	}
 
@@ -178,17 +270,136 @@ public class Inspector {
 	 *         <code>Traversal</code>
 	 */
 	public <T> boolean isSameTraversal(Traversal<T> obj1, Traversal<T> obj2) {
-		this.hashmap.clear();
-		INEXACT_ALLOWED = false;
-		INEXACT_COMPARED = false;
+		this.context.visited.clear();
+		this.context.inexactAllowed = false;
+		this.context.inexactCompared = false;
 		return isSameTraversalPrivate(obj1, obj2);
 	}
 
+	/* ------------ THE METHODS THAT FIND WHERE COMPARISONS FAIL ---------- */
+	/*
+	 * <<NOTE>>
+	 * The comparisons above only produce a boolean and do not pay for
+	 * recording where they are. When a comparison fails and the test report
+	 * shows the first difference, the same comparison is made again by the
+	 * methods below, with the same tolerance, tracking the path to the pair
+	 * of values where it fails. The successful comparisons never do this.
+	 */
+
+	/**
+	 * Find where the comparison of the two given objects by
+	 * <code>isSame</code> fails.
+	 * 
+	 * @param obj1
+	 *            typically the actual value
+	 * @param obj2
+	 *            typically the expected value
+	 * @return the path to the first pair of values that are not the same and
+	 *         the two values, or <code>null</code> if the objects are the
+	 *         same
+	 */
+	Difference mismatch(Object obj1, Object obj2) {
+		return this.track(obj1, obj2, null);
+	}
+
+	/**
+	 * Find where the comparison of the two given <code>Iterable</code>
+	 * objects by <code>isSameIterable</code> fails.
+	 * 
+	 * @param obj1
+	 *            typically the actual data
+	 * @param obj2
+	 *            typically the expected data
+	 * @return the first difference, or <code>null</code> if the data are the
+	 *         same
+	 */
+	Difference mismatchIterable(Iterable<?> obj1, Iterable<?> obj2) {
+		return this.track(obj1, obj2,
+				new IteratorFrame(obj1.iterator(), obj2.iterator()));
+	}
+
+	/**
+	 * Find where the comparison of the two given <code>Traversal</code>
+	 * objects by <code>isSameTraversal</code> fails.
+	 * 
+	 * @param obj1
+	 *            typically the actual data
+	 * @param obj2
+	 *            typically the expected data
+	 * @return the first difference, or <code>null</code> if the data are the
+	 *         same
+	 */
+	Difference mismatchTraversal(Traversal<?> obj1, Traversal<?> obj2) {
+		return this.track(obj1, obj2, new TraversalFrame(obj1, obj2));
+	}
+
+	/**
+	 * Make a comparison again, tracking the path to the first pair of values
+	 * that are not the same. The record of inexact comparisons is left as
+	 * the first comparison set it.
+	 * 
+	 * @param obj1
+	 *            typically the actual value
+	 * @param obj2
+	 *            typically the expected value
+	 * @param first
+	 *            the frame that starts the comparison of data elements, or
+	 *            <code>null</code> to compare the two objects
+	 * @return the first difference, or <code>null</code> if there is none
+	 */
+	private Difference track(Object obj1, Object obj2, Frame first) {
+		boolean inexactCompared = this.context.inexactCompared;
+		this.context.visited.clear();
+		this.tracking = true;
+		this.mismatch = null;
+		try {
+			if (first == null)
+				first = this.enter(obj1, obj2);
+			if (first == DIFFERENT)
+				return this.differenceAt(new ArrayList<Frame>(), obj1, obj2);
+			if (first != null)
+				this.compare(first);
+			return this.mismatch;
+		} catch (RuntimeException e) { // thrown by a user-defined method
+			return null;
+		} finally {
+			this.tracking = false;
+			this.mismatch = null;
+			this.context.visited.clear();
+			this.context.inexactCompared = inexactCompared;
+		}
+	}
+
+	/**
+	 * Produce the difference between the given values, produced by the
+	 * frame on the top of the given stack.
+	 * 
+	 * @param stack
+	 *            the frames of the comparison, all still on the stack
+	 * @param item1
+	 *            typically the actual value
+	 * @param item2
+	 *            typically the expected value
+	 * @return the difference at the path made by the frames
+	 */
+	private Difference differenceAt(ArrayList<Frame> stack, Object item1,
+			Object item2) {
+		ArrayList<String> segments = new ArrayList<String>();
+		for (Frame frame : stack)
+			segments.add(frame.segment());
+		double tolerance = Double.NaN;
+		if (this.context.inexactAllowed
+				&& (item1 instanceof Double || item1 instanceof Float))
+			tolerance = this.context.tolerance;
+		return new Difference(Difference.path(segments), item1, item2,
+				tolerance);
+	}
+
 	/* ------------ THE METHODS USED TO COMPARE TWO OBJECTS ------------- */
 	/**
 	 * <P>
-	 * Invoked by <CODE>isSame</CODE> method after the hashmap
-	 * that records seen objects has been cleared.
+	 * Invoked by <CODE>isSame</CODE> method after the set of pairs
+	 * of objects already seen has been cleared.
 	 * </P>
 	 * 
 	 * <P>
@@ -197,7 +408,7 @@ public class Inspector {
 	 * <P>
 	 * Consider inexact numbers (types <code>double</code>, <code>float</code>,
 	 * <code>Double</code>, <code>Float</code>) to be the same if the relative
-	 * difference is below <code>TOLERANCE</code>
+	 * difference is below the tolerance
 	 * </P>
 	 * <P>
 	 * Use <code>==</code> for all other primitive types and their wrapper
@@ -240,169 +451,136 @@ public class Inspector {
 	 *            typically the expected value
 	 * @return <code>true<code> if the two given object are the same
 	 */
-	@SuppressWarnings("unchecked")
 	private <T> boolean isSamePrivate(T obj1, T obj2) {
+		Frame frame = this.enter(obj1, obj2);
+		if (frame == null)
+			return true;
+		if (frame == DIFFERENT)
+			return false;
+		return this.compare(frame);
+	}
+
+	/**
+	 * <P>
+	 * Start the comparison of the two given objects: compare them right away
+	 * if they are null, identical, of different classes, of one of the
+	 * classes compared by value or by a user-defined method, or if they
+	 * have been seen before.
+	 * </P>
+	 * <P>
+	 * Otherwise produce the <code>Frame</code> that generates the pairs of
+	 * their components (array elements, data elements, map values or field
+	 * values) still to be compared.
+	 * </P>
+	 * 
+	 * @param obj1
+	 *            typically the actual value
+	 * @param obj2
+	 *            typically the expected value
+	 * @return <code>null</code> if the two objects are the same,
+	 *         <code>DIFFERENT</code> if they are not, or the
+	 *         <code>Frame</code> for their components
+	 */
+	@SuppressWarnings("unchecked")
+	private Frame enter(Object obj1, Object obj2) {
 
 		/** make sure both objects are not null */
 		if (obj1 == null)
-			return obj2 == null; // Returns true iff obj1 & obj2 are both null,
-									// otherwise returns false
+			return outcome(obj2 == null); // same iff obj1 & obj2 are both null,
+									// otherwise different
 		if (obj2 == null)
-			return false;
+			return DIFFERENT;
 		if (obj1 == obj2)
-			return true; // obj1 and obj2 are the same object
+			return null; // obj1 and obj2 are the same object
 
 		/** handle the world teachpack colors */
 		if (this.checkIColors(obj1, obj2))
-			return true;
+			return null;
 
-		Reflector r1 = new Reflector(obj1);
-		Reflector r2 = new Reflector(obj2);
+		/** the cached reflective layout of the two classes */
+		FieldLayout r1 = Reflector.layoutOf(obj1.getClass());
+		FieldLayout r2 = Reflector.layoutOf(obj2.getClass());
 
-		boolean sameClass = r1.sampleClass.equals(r2.sampleClass);
+		boolean sameClass = r1 == r2;
 
 		if (sameClass) {
-		  String r1Name = r1.sampleClass.getName();
-      String r2Name = r2.sampleClass.getName();
-		  
+		  String r1Name = r1.className;
 
 			/** handle String objects separately */
 			if (r1Name.equals("java.lang.String")) {
-				return obj1.equals(obj2);
+				return outcome(obj1.equals(obj2));
 			}
 
 			/** handle the primitive types separately */
-			if (r1.sampleClass.isPrimitive()) {
+			if (r1.layoutClass.isPrimitive()) {
 				if (isDouble(r1Name))
-					return isSameDouble((Double) obj1, (Double) obj2);
+					return outcome(isSameDouble((Double) obj1, (Double) obj2));
 				else if (isFloat(r1Name))
-					return isSameFloat((Float) obj1, (Float) obj2);
+					return outcome(isSameFloat((Float) obj1, (Float) obj2));
 				else
-					return (obj1.equals(obj2));
+					return outcome(obj1.equals(obj2));
 			}
 
 			/** handle the wrapper types separately */
 			if (isWrapperClass(r1Name)) {
 				if (isDouble(r1Name))
-					return isSameDouble((Double) obj1, (Double) obj2);
+					return outcome(isSameDouble((Double) obj1, (Double) obj2));
 				else if (isFloat(r1Name))
-					return isSameFloat((Float) obj1, (Float) obj2);
+					return outcome(isSameFloat((Float) obj1, (Float) obj2));
 				else
-					return (obj1.equals(obj2));
+					return outcome(obj1.equals(obj2));
 			}
 
 			/** handle the Canvas class in the draw teachpack */
 			if (isOurCanvas(r1Name))
-					return (obj1.equals(obj2));
+					return outcome(obj1.equals(obj2));
 			
 			/** handle the images in the WorldImage hierarchy */
 			if (isWorldImage(r1Name))
-					return obj1.equals(obj2);
+					return outcome(obj1.equals(obj2));
       
       /** handle the images in the tunes package */
       if (isTunesPackage(r1Name))
-          return obj1.equals(obj2);
+          return outcome(obj1.equals(obj2));
 				
 			
 			/**
-			 * Record the information about the object compared and check
-			 * whether the current pair has already been tested for equality, or
-			 * has been viewed before.
+			 * Record the pair of objects compared and check whether the
+			 * current pair has already been tested for equality, or has been
+			 * viewed before.
 			 */
-			Integer i1 = System.identityHashCode(obj1);
-			Integer i2 = System.identityHashCode(obj2);
-			/*
-			 * <<NOTE>>
-			 * [Author: Sachin Venugopalan; Date: 03/03/2012]
-			 * System.identityHashCode(obj) is used instead of obj.hashCode() for 2
-			 * reasons: 
-			 * 1. The default (Java-platform-implemented) hashcode for an
-			 * Object, although not guaranteed to be unique, may for all practical
-			 * purposes be treated as such. However, in the event that hashcode() of
-			 * user-defined objects is overridden such that objects that are not the
-			 * "same" ["same()"-ness in our Tester framework is analogous to Java's
-			 * definition of "equal()"] return the same hashcode [since there exists
-			 * no restriction in language/convention that would disallow this; e.g.
-			 * all objects returning hashcode 43, say, is permitted, albeit regarded
-			 * a bad hashing function], we do not wish to call upon the overridden
-			 * version of hashcode(); instead we'd like to use the value retunred by
-			 * the original implementation. System.identityHashCode(obj) achieves
-			 * this. 
-			 * 2. Asking for the hashcode of self-referential definitions
-			 * using Java's in-built container objects like java.unil.Arraylist
-			 * (which extends AbstractList that overrides hashcode()) causes Java to
-			 * spawn a circular call structure that loops infinitely; it then
-			 * becomes the responsibility of the programmer to make sure that such a
-			 * structure is culled!!) Calling System.identityHashCode(obj) instead
-			 * avoids this complexity.
-			 */ 
-
-// this code can be used for debugging:
-//			if(showComparisonDetail){
-//				System.out.println("Comparing:-");
-//				System.out.println("\tclass 1:" + r1.sampleClass.getName()
-//						+ "; hashcode:" + i1);
-//				System.out.println("\tclass 2:" + r2.sampleClass.getName()
-//						+ "; hashcode:" + i2);
-//				System.out.println("\tpair-hashmap key:" + i1 * i1 + i2 * i2);
-//			}
-
-			Integer i2match = this.hashmap.get(i1 * i1 + i2 * i2);
 			/*
 			 * <<NOTE>>
-			 * [Author: Sachin Venugopalan; Date: 03/03/2012]
 			 * In order to handle circularity, we need to keep track of pairs of
 			 * objects that have already been compared for equality (or for
 			 * which an equality check has already been initiated, and is
-			 * pending completion owing to a circular definition). In order to
-			 * look up pairs of already-seen objects efficiently, we need a
-			 * hash-based lookup directory such as a Hashset. The "key" (or
-			 * identifier) that is stored in the lookup directory should
-			 * identify the pair of objects; also it ought to be "symmetrical"
-			 * i.e. the pair of objects is not to be treated as an ordered pair
-			 * -- this stems from the fact that equality (rather, "sameness") 
-			 * between two objects itself is a symmetrical relationship.
-			 * In other words, having seen the pair (obj1, obj2) is identical to
-			 * having seen the pair (obj2, obj1) We have chosen i1*i1 + i2*i2 to
-			 * be this symmetrical identifier of the pair of objects, where i1 &
-			 * i2 are their (original) hashcodes. This choice is perhaps better
-			 * than i1*i2, say, because such an alternate choice potentially
-			 * leads to more collisions. However, there is no absolute guarantee
-			 * of uniqueness of i1*i1 + i2*i2 (simply because there is no
-			 * absolute guarantee of uniqueness of i1 and i2; we simply assume
-			 * their uniqueness for all practical purposes, given Java's current
-			 * implementation of hashcodes that relates to the unique memory
-			 * locations at which objects reside) Hence, we perform a second
-			 * "validation" step to confirm the identity of the pair of objects
-			 * by seeing if they map to a chosen value i1+i2 (note that this is
-			 * again symmetric) The second validation step may not be very
-			 * meaningful, and for the time being, it exists more for legacy reasons.
+			 * pending completion owing to a circular definition). The pairs are
+			 * symmetrical -- having seen the pair (obj1, obj2) is identical to
+			 * having seen the pair (obj2, obj1) -- and are looked up by the
+			 * System.identityHashCode of the two objects, so that neither a
+			 * user-defined hashCode nor the hashCode of self-referential
+			 * java.util containers is ever invoked. The objects themselves are
+			 * then compared by identity, so that two distinct pairs with the
+			 * same hash codes are never confused.
 			 */
-			if ((i2match != null) && (i2match.equals(i1 + i2))) {
-//				if(showComparisonDetail)
-//					System.out.println("\tcheck done already for this pair:" + i1
-//							* i1 + i2 * i2 + " => " + i2match.toString());
-				return true;
-			}
-			this.hashmap.put(i1 * i1 + i2 * i2, i1 + i2);
+			if (!this.context.visited.add(obj1, obj2))
+				return null;
 
 			/** handle Array objects */
 			if (obj1.getClass().isArray() && obj2.getClass().isArray()
 					&& obj1.getClass() == obj2.getClass()) {
 				int length = Array.getLength(obj1);
 				if (Array.getLength(obj2) == length) {
-					for (int i = 0; i < length; i++) {
-						if (!isSame(Array.get(obj1, i), Array.get(obj2, i)))
-							return false;
-					}
-					return true;
+					if (length == 0)
+						return null;
+					return new ArrayFrame(obj1, obj2, length);
 				} else
-					return false;
+					return DIFFERENT;
 			}
 
 			/** handle ISame objects by delegating to the user-defined method */
 			if ((obj1 instanceof ISame) && (obj2 instanceof ISame))
-				return ((ISame) obj1).same((ISame) obj2);
+				return outcome(((ISame) obj1).same((ISame) obj2));
 
 			/**
 			 * handle the Set objects in the Java Collection library by
@@ -411,7 +589,7 @@ public class Inspector {
 			 */
 			if ((obj1 instanceof Set) && (obj2 instanceof Set)
 					&& obj1.getClass().getName().startsWith("java.util"))
-				return isSameSet((Set) obj1, (Set) obj2);
+				return outcome(isSameSetPrivate((Set) obj1, (Set) obj2));
 
 			/**
 			 * handle Iterable objects in the Java Collection library by
@@ -419,8 +597,8 @@ public class Inspector {
 			 */
 			if ((obj1 instanceof Iterable) && (obj2 instanceof Iterable)
 					&& obj1.getClass().getName().startsWith("java.util"))
-				return isSameIterablePrivate((Iterable<T>) obj1,
-						(Iterable<T>) obj2);
+				return new IteratorFrame(((Iterable<?>) obj1).iterator(),
+						((Iterable<?>) obj2).iterator());
 
 			/**
 			 * handle the Map objects in the Java Collection library by
@@ -428,37 +606,21 @@ public class Inspector {
 			 */
 			if ((obj1 instanceof Map) && (obj2 instanceof Map)
 					&& obj1.getClass().getName().startsWith("java.util"))
-				return isSameMap((Map) obj1, (Map) obj2);
+				return mapFrame((Map) obj1, (Map) obj2);
 
 			/** now handle the general case */
-			boolean sameValues = true;
-			int i = 0;
-			try {
-				for (; i < Array.getLength(r1.sampleDeclaredFields); i++) {
-					sameValues = sameValues
-							&& isSamePrivate(
-									r1.sampleDeclaredFields[i].get(obj1),
-									r2.sampleDeclaredFields[i].get(obj2));
-				}
-			} catch (IllegalAccessException e) {
-				System.out.println("same comparing "
-						+ r1.sampleDeclaredFields[i].getType().getName()
-						+ " and "
-						+ r2.sampleDeclaredFields[i].getType().getName()
-						+ "cannot access the field " + i + " message: "
-						+ e.getMessage());
-				System.out.println("class 1: " + r1.sampleClass.getName());
-				System.out.println("class 2: " + r2.sampleClass.getName());
-			}
-
-			return sameValues;
+			if (r1.fields.length == 0)
+				return null;
+			if (r1.accessors != null)
+				return new FieldsFrame(r1.accessors, obj1, obj2);
+			return new ReflectiveFieldsFrame(r1, obj1, obj2);
 		} else
-			return false;
+			return DIFFERENT;
 	}
 
 	/**
 	 * Determine whether the relative difference between two double numbers is
-	 * below the expected <code>TOLERANCE</code> Measure absolute tolerance, if
+	 * below the expected tolerance Measure absolute tolerance, if
 	 * one of the numbers is exact zero.
 	 * 
 	 * @param d1
@@ -471,23 +633,23 @@ public class Inspector {
 		if (d1 - d2 == 0.0)
 			return true;
 		else {
-			INEXACT_COMPARED = true;
+			this.context.inexactCompared = true;
 			if (d1 == 0.0)
-				return Math.abs(d2) < TOLERANCE;
+				return Math.abs(d2) < this.context.tolerance;
 			if (d2 == 0.0)
-				return Math.abs(d1) < TOLERANCE;
+				return Math.abs(d1) < this.context.tolerance;
 
 			else
 				// d1, d2 are non-zero
 				// return (Math.abs(d1 - d2) / (Math.max (Math.abs(d1),
 				// Math.abs(d2))))
-				return Math.abs(d1 - d2) / (Math.abs((d1 + d2) / 2)) < TOLERANCE;
+				return Math.abs(d1 - d2) / (Math.abs((d1 + d2) / 2)) < this.context.tolerance;
 		}
 	}
 
 	/**
 	 * Determine whether the relative difference between two float numbers is
-	 * below the expected <code>TOLERANCE</code> Measure absolute tolerance, if
+	 * below the expected tolerance Measure absolute tolerance, if
 	 * one of the numbers is exact zero.
 	 * 
 	 * @param f1
@@ -500,17 +662,17 @@ public class Inspector {
 		if (f1 - f2 == 0.0)
 			return true;
 		else {
-			INEXACT_COMPARED = true;
+			this.context.inexactCompared = true;
 			Double d1 = ((Float) f1).doubleValue();
 			Double d2 = ((Float) f2).doubleValue();
 
 			if (f1 == 0.0)
-				return Math.abs(d2) < TOLERANCE;
+				return Math.abs(d2) < this.context.tolerance;
 			if (f2 == 0.0)
-				return Math.abs(d1) < TOLERANCE;
+				return Math.abs(d1) < this.context.tolerance;
 
 			// f1, f2 are non-zero
-			return (Math.abs(d1 - d2) / (Math.max(Math.abs(d1), Math.abs(d2)))) < TOLERANCE;
+			return (Math.abs(d1 - d2) / (Math.max(Math.abs(d1), Math.abs(d2)))) < this.context.tolerance;
 		}
 	}
 
@@ -561,18 +723,7 @@ public class Inspector {
 	 *         same order)
 	 */
 	protected <T> boolean isSameData(Iterator<T> it1, Iterator<T> it2) {
-		/** if the first dataset is empty, the second one has to be too */
-		if (!it1.hasNext()) {
-			return !it2.hasNext();
-		}
-		/** the first dataset is nonempty - make sure the second one is too... */
-		else if (!it2.hasNext())
-			return false;
-		/** now both have data - compare the next pair of data and recur */
-		else {
-			return this.isSamePrivate(it1.next(), it2.next())
-					&& this.isSameData(it1, it2);
-		}
+		return this.compare(new IteratorFrame(it1, it2));
 	}
 
 	/**
@@ -587,18 +738,7 @@ public class Inspector {
 	 *         (in the same order)
 	 */
 	protected <T> boolean isSameTraversalData(Traversal<T> tr1, Traversal<T> tr2) {
-		/** if the first dataset is empty, the second one has to be too */
-		if (tr1.isEmpty()) {
-			return tr2.isEmpty();
-		}
-		/** the first dataset is nonempty - make sure the second one is too... */
-		else if (tr2.isEmpty())
-			return false;
-		/** now both have data - compare the next pair of data and recur */
-		else {
-			return this.isSamePrivate(tr1.getFirst(), tr2.getFirst())
-					&& this.isSameTraversalData(tr1.getRest(), tr2.getRest());
-		}
+		return this.compare(new TraversalFrame(tr1, tr2));
 	}
 
 	/**
@@ -612,29 +752,17 @@ public class Inspector {
 	 * @return <code>true</code> if the two maps are extensionally equal
 	 */
 	protected <K, V> boolean isSameMap(Map<K, V> obj1, Map<K, V> obj2) {
-		// make sure both maps have the same size keyset
-		if (obj1.size() != obj2.size())
+		Frame frame = this.mapFrame(obj1, obj2);
+		if (frame == DIFFERENT)
 			return false;
-
-		// the key sets for the two maps have the same size - pick one
-		Set<K> set1 = obj1.keySet();
-
-		for (Object key : set1) {
-			// make sure each key is in both key sets
-			if (!obj2.containsKey(key))
-				return false;
-
-			// now compare the corresponding values
-			if (!this.isSamePrivate(obj1.get(key), obj2.get(key)))
-				return false;
-		}
-
-		// all tests passed
-		return true;
+		return this.compare(frame);
 	}
 
 	/**
-	 * Determine whether two <code>Set</code> objects contain the same data
+	 * Determine whether two <code>Set</code> objects contain the same data.
+	 * The items are looked up by their hash codes first; only the items
+	 * whose <code>hashCode</code> does not agree with their
+	 * <code>equals</code> method are matched one by one.
 	 * 
 	 * @param obj1
 	 *            the first <code>Set</code> dataset
@@ -648,32 +776,508 @@ public class Inspector {
 		if (obj1.size() != obj2.size())
 			return false;
 
-		// return obj1.containsAll(obj2);
+		// look up the items of the first set by their hash codes: a
+		// HashSet finds an item only if it equals an item of the set
+		Set<?> lookup = obj2;
+		if (!(obj2 instanceof HashSet))
+			lookup = new HashSet<T>(obj2);
 
-		// the sets have the same size - pick one
+		// the items whose hash codes do not agree with their equals method
+		// have to be matched one by one
+		ArrayList<T> leftover = null;
 		for (T item1 : obj1) {
-			boolean match = false; // did we find a match for this item?
-
-			// make sure each item of the first set matches an item in the
-			// second set
-			for (T item2 : obj2) {
-				// now compare the corresponding values using 'equals' as
-				// required
-				// for the Set interface
-				if (item1.equals(item2))
-					match = true; // match found
+			if (!lookup.contains(item1)) {
+				if (leftover == null)
+					leftover = new ArrayList<T>();
+				leftover.add(item1);
+			}
+		}
+
+		// all tests passed
+		if (leftover == null)
+			return true;
+		return this.matchByEquals(leftover, obj2);
+	}
+
+	/**
+	 * Make sure that every one of the given items equals some item of the
+	 * given set. The items of the set are grouped by their class and the
+	 * items of the same class are tried first.
+	 * 
+	 * @param items
+	 *            the items to match
+	 * @param set
+	 *            the <code>Set</code> that should contain the matching items
+	 * @return <code>true</code> if a match was found for every item
+	 */
+	private <T> boolean matchByEquals(List<T> items, Set<T> set) {
+		LinkedHashMap<Class<?>, ArrayList<T>> buckets =
+			new LinkedHashMap<Class<?>, ArrayList<T>>();
+		for (T item2 : set) {
+			Class<?> c = (item2 == null) ? null : item2.getClass();
+			ArrayList<T> bucket = buckets.get(c);
+			if (bucket == null) {
+				bucket = new ArrayList<T>();
+				buckets.put(c, bucket);
+			}
+			bucket.add(item2);
+		}
+
+		for (T item1 : items) {
+			Class<?> c = (item1 == null) ? null : item1.getClass();
+
+			// compare the corresponding values using 'equals' as required
+			// for the Set interface -- first with the items of the same class
+			boolean match = containsEqual(buckets.get(c), item1);
+			for (Map.Entry<Class<?>, ArrayList<T>> entry : buckets.entrySet()) {
+				if (match)
+					break;
+				if (entry.getKey() != c)
+					match = containsEqual(entry.getValue(), item1);
 			}
 
 			// no match found for this item
-			if (match == false) {
-				System.out.println("Mismatch for " + obj1 + " and " + obj2);
+			if (!match)
 				return false;
-			}
 		}
+		return true;
+	}
 
-		// all tests passed
+	/**
+	 * Does the given bucket contain an item that equals the given item?
+	 * 
+	 * @param bucket
+	 *            the items to search, or <code>null</code>
+	 * @param item1
+	 *            the item to look for
+	 * @return <code>true</code> if a matching item was found
+	 */
+	private static <T> boolean containsEqual(List<T> bucket, T item1) {
+		if (bucket == null)
+			return false;
+		for (T item2 : bucket) {
+			if (item1 == null ? item2 == null : item1.equals(item2))
+				return true;
+		}
+		return false;
+	}
+
+	/* ------------- THE WORK-STACK COMPARISON ENGINE ------------------ */
+	/*
+	 * <<NOTE>>
+	 * The comparison does not recur on the components of the objects: a
+	 * long list or a deeply nested structure would overflow the Java stack.
+	 * Instead every pair of objects that has components is represented by a
+	 * Frame that generates the pairs of its components one at a time, and
+	 * the frames wait on an explicit stack. The pairs are compared in the
+	 * same (depth-first) order as the components would be visited by the
+	 * recursive definition, and the whole comparison stops at the first pair
+	 * that is not the same. A frame that has produced its last pair is
+	 * removed before that pair is compared, so the stack does not grow along
+	 * the 'rest' field of a self-referential list.
+	 */
+
+	/** the result of <code>enter</code> for two objects that differ */
+	private static final Frame DIFFERENT = new Frame() {
+		int next() {
+			return FAIL;
+		}
+
+		String segment() {
+			return "";
+		}
+	};
+
+	/**
+	 * Convert the result of a comparison that is already complete to the
+	 * result of <code>enter</code>
+	 * 
+	 * @param same
+	 *            were the objects the same?
+	 * @return <code>null</code> if they were, <code>DIFFERENT</code>
+	 *         otherwise
+	 */
+	private static Frame outcome(boolean same) {
+		return same ? null : DIFFERENT;
+	}
+
+	/**
+	 * Compare all pairs generated by the given <code>Frame</code> and all
+	 * their components.
+	 * 
+	 * @param first
+	 *            the frame that starts the comparison
+	 * @return <code>true</code> if all pairs of components are the same
+	 */
+	private boolean compare(Frame first) {
+		ArrayList<Frame> stack = new ArrayList<Frame>();
+		stack.add(first);
+
+		while (!stack.isEmpty()) {
+			int top = stack.size() - 1;
+			Frame frame = stack.get(top);
+			int step = frame.next();
+
+			if (step == DONE) {
+				stack.remove(top);
+				continue;
+			}
+			if (step == FAIL) {
+				if (this.tracking)
+					this.mismatch = this.differenceAt(stack, frame.item1,
+							frame.item2);
+				return false;
+			}
+
+			/** the frame produced the next pair of components */
+			if (frame.last && !this.tracking)
+				stack.remove(top);
+			Object item1 = frame.item1;
+			Object item2 = frame.item2;
+			frame.item1 = null;
+			frame.item2 = null;
+			Frame child = this.enter(item1, item2);
+			if (child == DIFFERENT) {
+				if (this.tracking)
+					this.mismatch = this.differenceAt(stack, item1, item2);
+				return false;
+			}
+			if (child != null)
+				stack.add(child);
+		}
 		return true;
+	}
 
+	/**
+	 * Start the comparison of two <code>Map</code>s: compare their sizes and
+	 * produce the frame that compares their values key by key.
+	 * 
+	 * @param obj1
+	 *            the first <code>Map</code> dataset
+	 * @param obj2
+	 *            the second <code>Map</code> dataset
+	 * @return <code>DIFFERENT</code> if the sizes differ, the
+	 *         <code>Frame</code> for the values otherwise
+	 */
+	private Frame mapFrame(Map<?, ?> obj1, Map<?, ?> obj2) {
+		// make sure both maps have the same size keyset
+		if (obj1.size() != obj2.size())
+			return DIFFERENT;
+		return new MapFrame(obj1, obj2);
+	}
+
+	/** <code>Frame.next</code> produced a pair in <code>item1, item2</code> */
+	private static final int PAIR = 0;
+
+	/** <code>Frame.next</code> has no more pairs to produce */
+	private static final int DONE = 1;
+
+	/** <code>Frame.next</code> found that the objects are not the same */
+	private static final int FAIL = 2;
+
+	/**
+	 * The pairs of components of two objects that remain to be compared.
+	 */
+	private static abstract class Frame {
+		/**
+		 * the next pair of components, valid when <code>next</code> produced
+		 * <code>PAIR</code>, or the pair of values that are not the same
+		 * when it produced <code>FAIL</code>
+		 */
+		Object item1;
+		Object item2;
+
+		/** set to <code>true</code> when the pair produced is the last one */
+		boolean last;
+
+		/**
+		 * Produce the next pair of components in <code>item1, item2</code>
+		 * 
+		 * @return <code>PAIR</code>, <code>DONE</code> or <code>FAIL</code>
+		 */
+		abstract int next();
+
+		/**
+		 * @return the segment of the path that leads to the pair of
+		 *         components produced last
+		 */
+		abstract String segment();
+	}
+
+	/**
+	 * The pairs of elements of two arrays of the same class and length.
+	 */
+	private static final class ArrayFrame extends Frame {
+		private final Object array1;
+		private final Object array2;
+		private final int length;
+		private int i = 0;
+
+		ArrayFrame(Object array1, Object array2, int length) {
+			this.array1 = array1;
+			this.array2 = array2;
+			this.length = length;
+		}
+
+		int next() {
+			if (this.i == this.length)
+				return DONE;
+			this.item1 = Array.get(this.array1, this.i);
+			this.item2 = Array.get(this.array2, this.i);
+			this.i++;
+			this.last = this.i == this.length;
+			return PAIR;
+		}
+
+		String segment() {
+			return "[" + (this.i - 1) + "]";
+		}
+	}
+
+	/**
+	 * The pairs of data elements generated by two <code>Iterator</code>s.
+	 */
+	private static final class IteratorFrame extends Frame {
+		private final Iterator<?> it1;
+		private final Iterator<?> it2;
+		private int n = 0;
+
+		IteratorFrame(Iterator<?> it1, Iterator<?> it2) {
+			this.it1 = it1;
+			this.it2 = it2;
+		}
+
+		int next() {
+			/** if the first dataset is empty, the second one has to be too */
+			if (!this.it1.hasNext()) {
+				if (!this.it2.hasNext())
+					return DONE;
+				this.item1 = Difference.MISSING;
+				this.item2 = this.it2.next();
+				this.n++;
+				return FAIL;
+			}
+			/** the first dataset is nonempty - make sure the second one is too */
+			if (!this.it2.hasNext()) {
+				this.item1 = this.it1.next();
+				this.item2 = Difference.MISSING;
+				this.n++;
+				return FAIL;
+			}
+			/** now both have data - produce the next pair of data */
+			this.item1 = this.it1.next();
+			this.item2 = this.it2.next();
+			this.n++;
+			return PAIR;
+		}
+
+		String segment() {
+			return "[" + (this.n - 1) + "]";
+		}
+	}
+
+	/**
+	 * The pairs of data elements generated by two <code>Traversal</code>s.
+	 */
+	private static final class TraversalFrame extends Frame {
+		private Traversal<?> tr1;
+		private Traversal<?> tr2;
+
+		/** the rest of the traversals has to be taken before the next pair */
+		private boolean started = false;
+
+		/** the number of pairs produced */
+		private int n = 0;
+
+		TraversalFrame(Traversal<?> tr1, Traversal<?> tr2) {
+			this.tr1 = tr1;
+			this.tr2 = tr2;
+		}
+
+		int next() {
+			if (this.started) {
+				this.tr1 = this.tr1.getRest();
+				this.tr2 = this.tr2.getRest();
+			}
+			this.started = true;
+
+			/** if the first dataset is empty, the second one has to be too */
+			if (this.tr1.isEmpty()) {
+				if (this.tr2.isEmpty())
+					return DONE;
+				this.item1 = Difference.MISSING;
+				this.item2 = this.tr2.getFirst();
+				this.n++;
+				return FAIL;
+			}
+			/** the first dataset is nonempty - make sure the second one is too */
+			if (this.tr2.isEmpty()) {
+				this.item1 = this.tr1.getFirst();
+				this.item2 = Difference.MISSING;
+				this.n++;
+				return FAIL;
+			}
+			/** now both have data - produce the next pair of data */
+			this.item1 = this.tr1.getFirst();
+			this.item2 = this.tr2.getFirst();
+			this.n++;
+			return PAIR;
+		}
+
+		String segment() {
+			return "[" + (this.n - 1) + "]";
+		}
+	}
+
+	/**
+	 * The pairs of values of two <code>Map</code>s of the same size, for
+	 * every key of the first map.
+	 */
+	private static final class MapFrame extends Frame {
+		private final Map<?, ?> map1;
+		private final Map<?, ?> map2;
+		private final Iterator<?> keys;
+		private Object key;
+
+		MapFrame(Map<?, ?> map1, Map<?, ?> map2) {
+			this.map1 = map1;
+			this.map2 = map2;
+			// the key sets for the two maps have the same size - pick one
+			this.keys = map1.keySet().iterator();
+		}
+
+		int next() {
+			if (!this.keys.hasNext())
+				return DONE;
+			this.key = this.keys.next();
+			// make sure each key is in both key sets
+			if (!this.map2.containsKey(this.key)) {
+				this.item1 = this.map1.get(this.key);
+				this.item2 = Difference.MISSING;
+				return FAIL;
+			}
+			// now produce the corresponding values
+			this.item1 = this.map1.get(this.key);
+			this.item2 = this.map2.get(this.key);
+			this.last = !this.keys.hasNext();
+			return PAIR;
+		}
+
+		String segment() {
+			if (this.key instanceof String)
+				return "[\"" + this.key + "\"]";
+			if (this.key == null || isWrapperClass(this.key.getClass().getName())
+					|| this.key instanceof Enum)
+				return "[" + this.key + "]";
+			return "[" + this.key.getClass().getName() + " key]";
+		}
+	}
+
+	/**
+	 * The pairs of values of the reference fields of two objects of the same
+	 * class; the values of the primitive fields are compared right here, in
+	 * the order in which the fields are declared.
+	 */
+	private final class FieldsFrame extends Frame {
+		private final FieldAccessor[] accessors;
+		private final Object obj1;
+		private final Object obj2;
+		private int i = 0;
+
+		FieldsFrame(FieldAccessor[] accessors, Object obj1, Object obj2) {
+			this.accessors = accessors;
+			this.obj1 = obj1;
+			this.obj2 = obj2;
+		}
+
+		int next() {
+			while (this.i < this.accessors.length) {
+				FieldAccessor accessor = this.accessors[this.i++];
+				if (accessor instanceof FieldAccessor.PrimitiveAccessor) {
+					if (!((FieldAccessor.PrimitiveAccessor) accessor).same(
+							Inspector.this, this.obj1, this.obj2)) {
+						this.item1 = valueOf(accessor.field, this.obj1);
+						this.item2 = valueOf(accessor.field, this.obj2);
+						return FAIL;
+					}
+				} else {
+					FieldAccessor.ReferenceAccessor reference =
+							(FieldAccessor.ReferenceAccessor) accessor;
+					this.item1 = reference.get(this.obj1);
+					this.item2 = reference.get(this.obj2);
+					this.last = this.i == this.accessors.length;
+					return PAIR;
+				}
+			}
+			return DONE;
+		}
+
+		String segment() {
+			return "." + this.accessors[this.i - 1].field.getName();
+		}
+	}
+
+	/**
+	 * Produce the value of the given field of the given object, to show
+	 * where a comparison failed.
+	 * 
+	 * @param field
+	 *            an accessible field
+	 * @param obj
+	 *            the object to read
+	 * @return the value of the field, or <code>null</code> if it cannot be
+	 *         read
+	 */
+	private static Object valueOf(Field field, Object obj) {
+		try {
+			return field.get(obj);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The pairs of values of all fields of two objects of the same class,
+	 * read by <code>Field.get</code> when no accessors could be built for
+	 * the class.
+	 */
+	private static final class ReflectiveFieldsFrame extends Frame {
+		private final FieldLayout layout;
+		private final Object obj1;
+		private final Object obj2;
+		private int i = 0;
+
+		ReflectiveFieldsFrame(FieldLayout layout, Object obj1, Object obj2) {
+			this.layout = layout;
+			this.obj1 = obj1;
+			this.obj2 = obj2;
+		}
+
+		int next() {
+			if (this.i == this.layout.fields.length)
+				return DONE;
+			try {
+				this.item1 = this.layout.fields[this.i].get(this.obj1);
+				this.item2 = this.layout.fields[this.i].get(this.obj2);
+			} catch (IllegalAccessException e) {
+				System.out.println("same comparing "
+						+ this.layout.fields[this.i].getType().getName()
+						+ " and "
+						+ this.layout.fields[this.i].getType().getName()
+						+ "cannot access the field " + this.i + " message: "
+						+ e.getMessage());
+				System.out.println("class 1: " + this.layout.className);
+				System.out.println("class 2: " + this.layout.className);
+				return DONE;
+			}
+			this.i++;
+			this.last = this.i == this.layout.fields.length;
+			return PAIR;
+		}
+
+		String segment() {
+			return "." + this.layout.fields[this.i - 1].getName();
+		}
 	}
 
 	/** ------- THE METHODS USED TO DETERMINE THE TYPES OF OBJECTS ---------- */
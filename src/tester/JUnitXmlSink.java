@@ -0,0 +1,230 @@
+package tester;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The <CODE>{@link ResultSink ResultSink}</CODE> that writes the test
+ * results to a file in the JUnit XML format, so that build servers and
+ * grading scripts can read them without parsing the text of the test
+ * report.
+ * </P>
+ * <P>
+ * Every test becomes one <code>testcase</code> element, written as soon as
+ * the test has been evaluated: its class is the class where the test was
+ * invoked, its name is the name of the test, and its time is the time the
+ * test took. A failed test contains a <code>failure</code> element with the
+ * report on the test; a test that compared inexact numbers says so in its
+ * <code>system-out</code> element.
+ * </P>
+ * <P>
+ * The numbers of tests and failures are written into the
+ * <code>testsuite</code> element when the sink is closed: the file is
+ * complete only after <code>close</code>.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public class JUnitXmlSink implements ResultSink {
+
+	/** the space reserved for the totals in the testsuite element */
+	private static final int TOTALS_WIDTH = 96;
+
+	/** the writer of the file */
+	private final ChannelWriter writer;
+
+	/** the position of the space reserved for the totals */
+	private final long totalsPosition;
+
+	/** the number of tests written */
+	private int tests = 0;
+
+	/** the number of failed tests written */
+	private int failures = 0;
+
+	/** the total time of the tests written, in nanoseconds */
+	private long time = 0;
+
+	/**
+	 * Constructor: write the results of the test suite with the given name
+	 * to the given file, replacing its contents.
+	 *
+	 * @param file the file where the results are written
+	 * @param suiteName the name of the test suite
+	 * @throws IOException if the file cannot be opened for writing
+	 */
+	public JUnitXmlSink(File file, String suiteName) throws IOException {
+		this.writer = new ChannelWriter(file);
+		this.writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<testsuite name=\"" + escape(suiteName) + "\"");
+		this.totalsPosition = this.writer.position();
+		this.writer.write(pad("", TOTALS_WIDTH) + ">\n");
+	}
+
+	/**
+	 * Write the result of a test that succeeded.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testSucceeded(TestResult result) {
+		this.writeTestCase(result);
+	}
+
+	/**
+	 * Write the result of a test that failed.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testFailed(TestResult result) {
+		this.failures = this.failures + 1;
+		this.writeTestCase(result);
+	}
+
+	/**
+	 * Write out the results received so far.
+	 *
+	 * @param tests the number of tests run
+	 * @param errors the number of tests that failed
+	 * @param warnings the number of warnings of inexact comparison issued
+	 * @param full <code>true</code> if the full test report was requested
+	 */
+	public void testsFinished(int tests, int errors, int warnings,
+			boolean full) {
+		this.writer.flush();
+	}
+
+	/**
+	 * Write the report on the times of the tests and of the test methods
+	 * as the <code>system-out</code> of the test suite.
+	 *
+	 * @param tests the times of the tests
+	 * @param methods the times of the test methods
+	 */
+	public void timingsFinished(Timings tests, Timings methods) {
+		this.writer.write("  <system-out>"
+				+ escape(Timings.report(tests, methods)) + "</system-out>\n");
+		this.writer.flush();
+	}
+
+	/**
+	 * Every <code>testcase</code> names the class where the test was
+	 * invoked.
+	 *
+	 * @return <code>true</code>
+	 */
+	public boolean needsSourceFrames() {
+		return true;
+	}
+
+	/**
+	 * Finish the file with the numbers of tests and failures, and close it.
+	 */
+	public void close() {
+		this.writer.write("</testsuite>\n");
+		this.writer.writeAt(this.totalsPosition, pad(
+				" tests=\"" + this.tests + "\" failures=\"" + this.failures
+				+ "\" errors=\"0\" time=\"" + seconds(this.time) + "\"",
+				TOTALS_WIDTH));
+		this.writer.close();
+	}
+
+	/**
+	 * Write the <code>testcase</code> element for the given result.
+	 *
+	 * @param result the result of a test
+	 */
+	private void writeTestCase(TestResult result) {
+		this.tests = this.tests + 1;
+		this.time = this.time + result.getDurationNanos();
+
+		StackTraceElement frame = result.getSourceFrame();
+		String name = result.getName();
+		if (name.length() == 0)
+			name = "test number " + result.getNumber();
+
+		StringBuilder element = new StringBuilder("  <testcase");
+		if (frame != null)
+			element.append(" classname=\"" + escape(frame.getClassName()) + "\"");
+		element.append(" name=\"" + escape(name) + "\"");
+		element.append(" time=\"" + seconds(result.getDurationNanos()) + "\"");
+		if (frame != null && frame.getFileName() != null)
+			element.append(" file=\"" + escape(frame.getFileName())
+					+ "\" line=\"" + frame.getLineNumber() + "\"");
+
+		if (result.isSuccess() && !result.hasWarning()) {
+			this.writer.write(element.append("/>\n").toString());
+			return;
+		}
+
+		element.append(">\n");
+		if (!result.isSuccess())
+			element.append("    <failure message=\"" + escape(name) + "\">"
+					+ escape(result.getReport()) + "</failure>\n");
+		if (result.hasWarning())
+			element.append("    <system-out>The comparison involved inexact "
+					+ "numbers</system-out>\n");
+		element.append("  </testcase>\n");
+		this.writer.write(element.toString());
+	}
+
+	/**
+	 * Produce the given time in seconds, as written in the JUnit format.
+	 *
+	 * @param nanos the time in nanoseconds
+	 * @return the time in seconds, with six decimal places
+	 */
+	private static String seconds(long nanos) {
+		return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+	}
+
+	/**
+	 * Pad the given text with spaces to the given width.
+	 *
+	 * @param text the text to pad
+	 * @param width the desired width
+	 * @return the padded text
+	 */
+	private static String pad(String text, int width) {
+		StringBuilder padded = new StringBuilder(text);
+		while (padded.length() < width)
+			padded.append(' ');
+		return padded.toString();
+	}
+
+	/**
+	 * Escape the given text for use in an XML attribute or element. The
+	 * control characters that XML does not allow are replaced by
+	 * <code>?</code>.
+	 *
+	 * @param text the text to escape
+	 * @return the escaped text
+	 */
+	static String escape(String text) {
+		StringBuilder escaped = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '&': escaped.append("&amp;"); break;
+			case '<': escaped.append("&lt;"); break;
+			case '>': escaped.append("&gt;"); break;
+			case '"': escaped.append("&quot;"); break;
+			case '\n': escaped.append("&#10;"); break;
+			case '\r': escaped.append("&#13;"); break;
+			case '\t': escaped.append("&#9;"); break;
+			default:
+				if (c < 0x20)
+					escaped.append('?');
+				else
+					escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+}
@@ -0,0 +1,220 @@
+package tester;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The <CODE>{@link ResultSink ResultSink}</CODE> that writes every test
+ * result to a file as one line of JSON, as soon as the test has been
+ * evaluated. Every record has the fields
+ * </P>
+ * <UL>
+ * <LI><code>number</code> -- the number of the test in its run</LI>
+ * <LI><code>name</code> -- the name of the test</LI>
+ * <LI><code>outcome</code> -- <code>"success"</code> or
+ * <code>"failure"</code></LI>
+ * <LI><code>class</code>, <code>method</code>, <code>file</code>,
+ * <code>line</code> -- where the test was invoked, or <code>null</code> if
+ * not known</LI>
+ * <LI><code>durationNanos</code> -- the time the test took</LI>
+ * <LI><code>warning</code> -- <code>true</code> if the test compared
+ * inexact numbers</LI>
+ * <LI><code>report</code> -- the report on a failed test, or
+ * <code>null</code> for a test that succeeded</LI>
+ * </UL>
+ * <P>
+ * When the timing of the tests is turned on, every run ends with two more
+ * records, for the times of the tests and of the test methods, with the
+ * field <code>timing</code> in place of <code>number</code>.
+ * </P>
+ * <P>
+ * The file is flushed at the end of every run and stays open, so that the
+ * results of several <code>Examples</code> classes can be written to the
+ * same file; <code>close</code> it when all tests have been run.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public class JsonLinesSink implements ResultSink {
+
+	/** the writer of the file */
+	private final ChannelWriter writer;
+
+	/**
+	 * Constructor: write the results to the given file, replacing its
+	 * contents.
+	 *
+	 * @param file the file where the results are written
+	 * @throws IOException if the file cannot be opened for writing
+	 */
+	public JsonLinesSink(File file) throws IOException {
+		this.writer = new ChannelWriter(file);
+	}
+
+	/**
+	 * Write the record of a test that succeeded.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testSucceeded(TestResult result) {
+		this.writeRecord(result);
+	}
+
+	/**
+	 * Write the record of a test that failed.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testFailed(TestResult result) {
+		this.writeRecord(result);
+	}
+
+	/**
+	 * Write out the records received so far.
+	 *
+	 * @param tests the number of tests run
+	 * @param errors the number of tests that failed
+	 * @param warnings the number of warnings of inexact comparison issued
+	 * @param full <code>true</code> if the full test report was requested
+	 */
+	public void testsFinished(int tests, int errors, int warnings,
+			boolean full) {
+		this.writer.flush();
+	}
+
+	/**
+	 * Write one record for the times of the tests and one for the times of
+	 * the test methods.
+	 *
+	 * @param tests the times of the tests
+	 * @param methods the times of the test methods
+	 */
+	public void timingsFinished(Timings tests, Timings methods) {
+		this.writer.write(timingRecord("tests", tests)
+				+ timingRecord("test methods", methods));
+		this.writer.flush();
+	}
+
+	/**
+	 * Every record says where the test was invoked.
+	 *
+	 * @return <code>true</code>
+	 */
+	public boolean needsSourceFrames() {
+		return true;
+	}
+
+	/**
+	 * Write out the remaining records and close the file.
+	 */
+	public void close() {
+		this.writer.close();
+	}
+
+	/**
+	 * Write the record for the given result.
+	 *
+	 * @param result the result of a test
+	 */
+	private void writeRecord(TestResult result) {
+		this.writer.write(record(result));
+	}
+
+	/**
+	 * Produce the record for the given result: one line of JSON.
+	 *
+	 * @param result the result of a test
+	 * @return the record, ending with a newline
+	 */
+	static String record(TestResult result) {
+		StackTraceElement frame = result.getSourceFrame();
+
+		StringBuilder record = new StringBuilder("{\"number\":");
+		record.append(result.getNumber());
+		record.append(",\"name\":").append(quote(result.getName()));
+		record.append(",\"outcome\":")
+				.append(result.isSuccess() ? "\"success\"" : "\"failure\"");
+		if (frame == null)
+			record.append(",\"class\":null,\"method\":null,\"file\":null"
+					+ ",\"line\":null");
+		else
+			record.append(",\"class\":").append(quote(frame.getClassName()))
+					.append(",\"method\":").append(quote(frame.getMethodName()))
+					.append(",\"file\":").append(quote(frame.getFileName()))
+					.append(",\"line\":").append(frame.getLineNumber());
+		record.append(",\"durationNanos\":").append(result.getDurationNanos());
+		record.append(",\"warning\":").append(result.hasWarning());
+		record.append(",\"report\":").append(
+				result.isSuccess() ? "null" : quote(result.getReport()));
+		record.append("}\n");
+		return record.toString();
+	}
+
+	/**
+	 * Produce the record for the given times: one line of JSON with the
+	 * fields <code>timing</code> -- what was timed --, <code>count</code>,
+	 * <code>totalNanos</code>, <code>p50Nanos</code>, <code>p99Nanos</code>,
+	 * <code>maxNanos</code> and <code>slowest</code>, the list of the
+	 * slowest entries with their <code>name</code> and <code>nanos</code>.
+	 *
+	 * @param kind what was timed: tests or test methods
+	 * @param timings the recorded times
+	 * @return the record, ending with a newline
+	 */
+	static String timingRecord(String kind, Timings timings) {
+		StringBuilder record = new StringBuilder("{\"timing\":");
+		record.append(quote(kind));
+		record.append(",\"count\":").append(timings.getCount());
+		record.append(",\"totalNanos\":").append(timings.getTotalNanos());
+		record.append(",\"p50Nanos\":")
+				.append(timings.getPercentileNanos(50));
+		record.append(",\"p99Nanos\":")
+				.append(timings.getPercentileNanos(99));
+		record.append(",\"maxNanos\":").append(timings.getMaxNanos());
+		record.append(",\"slowest\":[");
+		String separator = "";
+		for (Timings.Entry entry : timings.getSlowest()) {
+			record.append(separator).append("{\"name\":")
+					.append(quote(entry.getName()))
+					.append(",\"nanos\":").append(entry.getNanos()).append('}');
+			separator = ",";
+		}
+		record.append("]}\n");
+		return record.toString();
+	}
+
+	/**
+	 * Produce the given text as a JSON string.
+	 *
+	 * @param text the text to quote, or <code>null</code>
+	 * @return the quoted and escaped text, or <code>null</code>
+	 */
+	static String quote(String text) {
+		if (text == null)
+			return "null";
+		StringBuilder quoted = new StringBuilder(text.length() + 2);
+		quoted.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '"': quoted.append("\\\""); break;
+			case '\\': quoted.append("\\\\"); break;
+			case '\n': quoted.append("\\n"); break;
+			case '\r': quoted.append("\\r"); break;
+			case '\t': quoted.append("\\t"); break;
+			default:
+				if (c < 0x20)
+					quoted.append(String.format("\\u%04x", (int) c));
+				else
+					quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+}
@@ -1,9 +1,10 @@
 package tester;
 
 import java.lang.reflect.*;
+import java.util.Arrays;
 import java.util.Set;
 
-import tester.cobertura.AnnotationScanner;
+import tester.cobertura.ClassHeaderScanner;
 
 /**
  *  Copyright 2008, 2009, 2010, 2011 Viera K. Proulx, Matthias Felleisen
@@ -39,11 +40,32 @@ public class Main {
 	 * and reported separately/consecutively.</p>
 	 * <p>If there are no annotated classes the class <code>Examples</code> or
 	 * the class whose name is given as the argument is the only test class.</p>
+	 * <p>With the arguments <code>--batch manifest reportDir [threads]</code>
+	 * the tests of all classes listed in the manifest are run instead, as
+	 * described in <CODE>{@link Batch Batch}</CODE>.</p>
+	 * <p>With the arguments <code>--daemon [port tokenFile]</code> the tests
+	 * of the classes named in the requests read from the standard input, or
+	 * from the connections to the given port that present the token in the
+	 * given file, are run until the requests end, as
+	 * described in <CODE>{@link Daemon Daemon}</CODE>.</p>
+	 * <p>With the system property <code>tester.sink=console</code> every
+	 * failed test is printed as soon as it has been evaluated, and the
+	 * results are not kept until the end, see
+	 * <CODE>{@link Tester#SINK_PROPERTY Tester.SINK_PROPERTY}</CODE>.</p>
 	 *
 	 * @param argv [optional] the name of the class that defines the tests
 	 * @throws Exception
 	 */
 	public static void main(String argv[]) throws Exception {
+		if (argv != null && argv.length > 0 && argv[0].equals("--batch")) {
+			Batch.main(Arrays.copyOfRange(argv, 1, argv.length));
+			return;
+		}
+		if (argv != null && argv.length > 0 && argv[0].equals("--daemon")) {
+			Daemon.main(Arrays.copyOfRange(argv, 1, argv.length));
+			return;
+		}
+
 		//pool = Executors.newCachedThreadPool(); //For concurrency
 		//Instrumentor inst = new Instrumentor();
 		//Set<String> instrumentedClasses =
@@ -56,7 +78,7 @@ public class Main {
     boolean noTests = true; // set to false if Annotations found test to run
 
 		// set up the scanner to look for '@Example' class annotation
-		AnnotationScanner scanner = new AnnotationScanner(
+		ClassHeaderScanner scanner = new ClassHeaderScanner(
 				tester.Example.class);
 		Set<String> classes = null;
 
@@ -0,0 +1,181 @@
+package tester;
+
+import java.io.PrintStream;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The <CODE>{@link ResultSink ResultSink}</CODE> that keeps all test
+ * results in memory and prints them at the end of the run: the failed
+ * tests, or all tests when the full test report is requested. This is the
+ * report a <code>Tester</code> produces unless it is given another sink.
+ * </P>
+ * <P>
+ * The recorded results remain available through
+ * <code>getFailedResults</code> and <code>getFullTestResults</code>.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public class MemorySink implements ResultSink {
+
+	/** the stream where the report is printed */
+	private final PrintStream out;
+
+	/**
+	 * the results for all failed tests -- also the deprecated
+	 * <code>failedResults</code> of the <code>Tester</code>
+	 */
+	final StringBuilder failedResults = new StringBuilder(
+			"Failed test results: \n--------------\n");
+
+	/**
+	 * all test results -- also the deprecated <code>fullTestResults</code>
+	 * of the <code>Tester</code>
+	 */
+	final StringBuilder fullTestResults = new StringBuilder(
+			"Full test results: " + "\n-------------------\n");
+
+	/** the report is printed on <code>System.out</code> */
+	public MemorySink() {
+		this(System.out);
+	}
+
+	/**
+	 * Constructor: print the report on the given stream.
+	 *
+	 * @param out the stream where the report is printed
+	 */
+	public MemorySink(PrintStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Record the result of a test that succeeded in the full test report.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testSucceeded(TestResult result) {
+		this.fullTestResults.append("\n" + result.getReport());
+	}
+
+	/**
+	 * Record the result of a test that failed in the failed test report and
+	 * in the full test report.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testFailed(TestResult result) {
+		this.failedResults.append("\n" + result.getReport());
+		this.fullTestResults.append("\n" + result.getReport());
+	}
+
+	/**
+	 * Print the number of tests, failures and warnings, followed by the
+	 * failed tests or, when requested, by all tests.
+	 *
+	 * @param tests the number of tests run
+	 * @param errors the number of tests that failed
+	 * @param warnings the number of warnings of inexact comparison issued
+	 * @param full <code>true</code> if the full test report was requested
+	 */
+	public void testsFinished(int tests, int errors, int warnings,
+			boolean full) {
+		if (full)
+			this.out.println(testCount(tests, errors, warnings)
+					+ this.fullTestResults
+					+ "\n--- END OF FULL TEST RESULTS ---");
+		else {
+			this.out.print(testCount(tests, errors, warnings));
+			if (errors > 0)
+				this.out.println(this.failedResults);
+			this.out.println("--- END OF TEST RESULTS ---");
+		}
+	}
+
+	/**
+	 * Print the report on the times of the tests and of the test methods.
+	 *
+	 * @param tests the times of the tests
+	 * @param methods the times of the test methods
+	 */
+	public void timingsFinished(Timings tests, Timings methods) {
+		this.out.println(Timings.report(tests, methods));
+	}
+
+	/**
+	 * The report does not show where the successful tests were invoked.
+	 *
+	 * @return <code>false</code>
+	 */
+	public boolean needsSourceFrames() {
+		return false;
+	}
+
+	/**
+	 * Produce the results of all failed tests recorded so far.
+	 *
+	 * @return the failed test report
+	 */
+	public String getFailedResults() {
+		return this.failedResults.toString();
+	}
+
+	/**
+	 * Produce the results of all tests recorded so far.
+	 *
+	 * @return the full test report
+	 */
+	public String getFullTestResults() {
+		return this.fullTestResults.toString();
+	}
+
+	/**
+	 * Produce a <code>String</code> describing the number of tests that were
+	 * run and that failed.
+	 *
+	 * @param tests the number of tests run
+	 * @param errors the number of tests that failed
+	 * @param warnings the number of warnings of inexact comparison issued
+	 * @return the desired <code>String</code>
+	 */
+	static String testCount(int tests, int errors, int warnings) {
+		String tCount = "";
+
+		// report test totals
+		if (tests == 1) {
+			tCount = "\nRan 1 test.\n";
+		} else if (tests > 1) {
+			tCount = "\nRan " + tests + " tests.\n";
+		}
+
+		// report error totals
+		if (errors == 0) {
+			tCount = tCount + "All tests passed.\n";
+		}
+		if (errors == 1) {
+			tCount = tCount + "1 test failed.\n";
+
+		} else if (errors > 1) {
+			tCount = tCount + errors + " tests failed.\n";
+		}
+
+		// report warnings totals
+		if (warnings == 0) {
+			tCount = tCount + "\n";
+		}
+		if (warnings == 1) {
+			tCount = tCount + "Issued 1 warning of inexact comparison.\n\n";
+
+		} else if (warnings > 1) {
+			tCount = tCount + "Issued " + warnings +
+					" warnings of inexact comparison.\n\n";
+		}
+
+		return tCount;
+	}
+}
@@ -0,0 +1,70 @@
+package tester;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The results of one test method run by its own <code>Tester</code>, kept
+ * until the <code>Tester</code> that runs the whole <code>Examples</code>
+ * class adds them to its report.
+ * </P>
+ * <P>
+ * The results are recorded without their test numbers: they are numbered
+ * when they are added to the report, in the order of the test methods, so
+ * that the report is the same no matter in which order the test methods
+ * finished.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class MethodResults {
+
+	/** the test method whose results are recorded */
+	final Method method;
+
+	/** the position of the test method among those run */
+	final int index;
+
+	/** the results of the tests, in the order in which they were run */
+	final ArrayList<TestResult> results = new ArrayList<TestResult>();
+
+	/** the number of warnings of inexact comparison issued */
+	int warnings = 0;
+
+	/** the exception thrown by the test method, or <code>null</code> */
+	Throwable thrown = null;
+
+	/** the time the test method took, in nanoseconds */
+	long nanos = 0;
+
+	/** the name of the last test run by the test method */
+	String testname = "";
+
+	/**
+	 * Constructor: no results recorded yet.
+	 *
+	 * @param method the test method whose results are recorded
+	 * @param index the position of the test method among those run
+	 */
+	MethodResults(Method method, int index) {
+		this.method = method;
+		this.index = index;
+	}
+
+	/**
+	 * Record the result of one test.
+	 *
+	 * @param result the result of the test, not numbered yet
+	 * @return <code>true</code> if the test succeeded
+	 */
+	boolean add(TestResult result) {
+		this.results.add(result);
+		return result.isSuccess();
+	}
+}
@@ -0,0 +1,161 @@
+package tester;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The limits on the size of the <code>String</code> representation
+ * produced by the <CODE>{@link Printer Printer}</CODE>: how deep the nested
+ * objects are shown, how many elements of an array, a collection, a map or
+ * a <CODE>{@link Traversal Traversal}</CODE> are shown, how long a
+ * <code>String</code> value is shown, and how many characters the whole
+ * representation may have. A limit of 0 means no limit.
+ * </P>
+ * <P>
+ * Where a limit is reached the representation shows what was left out --
+ * <code>(...)</code> for the fields of an object nested too deep,
+ * <code>... 12 more elements</code>, <code>... (40 more characters)</code>
+ * -- and once the whole representation is as long as allowed, nothing more
+ * is printed, so a failed test of a very large value stays cheap to report.
+ * </P>
+ * <P>
+ * The limits used by the tests are given by the system properties
+ * <code>tester.printDepth</code>, <code>tester.printElements</code>,
+ * <code>tester.printChars</code> and <code>tester.printStringLength</code>;
+ * without them there are no limits.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public final class PrintLimits {
+
+	/**
+	 * The name of the system property that sets the number of levels of
+	 * nested objects shown.
+	 */
+	public static final String DEPTH_PROPERTY = "tester.printDepth";
+
+	/**
+	 * The name of the system property that sets the number of elements of
+	 * an array, collection, map or traversal shown.
+	 */
+	public static final String ELEMENTS_PROPERTY = "tester.printElements";
+
+	/**
+	 * The name of the system property that sets the number of characters of
+	 * the whole representation.
+	 */
+	public static final String CHARS_PROPERTY = "tester.printChars";
+
+	/**
+	 * The name of the system property that sets the number of characters of
+	 * a <code>String</code> value shown.
+	 */
+	public static final String STRING_LENGTH_PROPERTY = "tester.printStringLength";
+
+	/** no limits: every value is shown in full */
+	public static final PrintLimits NONE = new PrintLimits(0, 0, 0, 0);
+
+	/** the number of levels of nested objects shown, 0 for all */
+	private final int maxDepth;
+
+	/** the number of elements of a collection shown, 0 for all */
+	private final int maxElements;
+
+	/** the number of characters of the representation, 0 for any */
+	private final int maxChars;
+
+	/** the number of characters of a <code>String</code> shown, 0 for all */
+	private final int maxStringLength;
+
+	/**
+	 * Constructor: the given limits, where 0 (or less) means no limit.
+	 *
+	 * @param maxDepth
+	 *            the number of levels of nested objects shown: 1 shows the
+	 *            fields of the printed object, but not the fields of the
+	 *            objects they refer to
+	 * @param maxElements
+	 *            the number of elements of an array, a collection, a map or
+	 *            a <CODE>{@link Traversal Traversal}</CODE> shown
+	 * @param maxChars
+	 *            the number of characters of the whole representation
+	 * @param maxStringLength
+	 *            the number of characters of a <code>String</code> value
+	 *            shown
+	 */
+	public PrintLimits(int maxDepth, int maxElements, int maxChars,
+			int maxStringLength) {
+		this.maxDepth = Math.max(0, maxDepth);
+		this.maxElements = Math.max(0, maxElements);
+		this.maxChars = Math.max(0, maxChars);
+		this.maxStringLength = Math.max(0, maxStringLength);
+	}
+
+	/**
+	 * Produce the limits given by the system properties.
+	 *
+	 * @return the limits, <CODE>{@link #NONE NONE}</CODE> if no property is
+	 *         set
+	 */
+	public static PrintLimits fromProperties() {
+		int maxDepth = limitProperty(DEPTH_PROPERTY);
+		int maxElements = limitProperty(ELEMENTS_PROPERTY);
+		int maxChars = limitProperty(CHARS_PROPERTY);
+		int maxStringLength = limitProperty(STRING_LENGTH_PROPERTY);
+		if (maxDepth == 0 && maxElements == 0 && maxChars == 0
+				&& maxStringLength == 0)
+			return NONE;
+		return new PrintLimits(maxDepth, maxElements, maxChars,
+				maxStringLength);
+	}
+
+	/**
+	 * Read a limit from the given system property.
+	 *
+	 * @param property the name of the system property
+	 * @return the limit, 0 if the property is not set or not valid
+	 */
+	private static int limitProperty(String property) {
+		String value = System.getProperty(property);
+		if (value == null)
+			return 0;
+		try {
+			return Math.max(0, Integer.parseInt(value.trim()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * @return the number of levels of nested objects shown, 0 for all
+	 */
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	/**
+	 * @return the number of elements of a collection shown, 0 for all
+	 */
+	public int getMaxElements() {
+		return this.maxElements;
+	}
+
+	/**
+	 * @return the number of characters of the representation, 0 for any
+	 */
+	public int getMaxChars() {
+		return this.maxChars;
+	}
+
+	/**
+	 * @return the number of characters of a <code>String</code> shown, 0
+	 *         for all
+	 */
+	public int getMaxStringLength() {
+		return this.maxStringLength;
+	}
+}
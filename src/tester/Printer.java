@@ -24,20 +24,54 @@ import java.util.*;
 public class Printer {
 	// private static final Logger logger = Logger
 	// .getLogger(Printer.class);
-	/** current indentation level for pretty-printing */
-	private static String INDENT = "";
+
+	/** the indentation for the first levels of nesting, built only once */
+	private static final String[] INDENTS = new String[16];
+
+	static {
+		INDENTS[0] = "";
+		for (int i = 1; i < INDENTS.length; i++)
+			INDENTS[i] = INDENTS[i - 1] + "  ";
+	}
 
 	/** the String class - needed as indentation argument type for WorldImage-s */
-  private static Class<?> stringClass = INDENT.getClass();
+  private static Class<?> stringClass = String.class;
+
+	/*
+	 * The printing state below belongs to one instance of the printer, and
+	 * every public method that starts printing makes a new one: printing in
+	 * several threads at the same time, or from a toString method that is
+	 * invoked while printing, does not mix up the output.
+	 */
+
+	/** the limits on the size of the output */
+	private final PrintLimits limits;
+
+	/** the output produced so far */
+	private final StringBuilder out = new StringBuilder();
+
+	/** <code>true</code> once the output is as long as the limits allow */
+	private boolean spent = false;
 
 	/** object counter */
-	private static int counter;
+	private int counter;
 
 	/**
 	 * a hashmap of the hashcodes for the objects that are being printed: if the
 	 * same pair is compared again, the loop of printing stops and produces true
 	 */
-	private static HashMap<Integer, Integer> hashmap = new HashMap<Integer, Integer>();
+	private final HashMap<Integer, Integer> hashmap = new HashMap<Integer, Integer>();
+
+	/**
+	 * Constructor: a printer with nothing printed yet, used for one
+	 * <code>String</code> representation.
+	 *
+	 * @param limits
+	 *            the limits on the size of the representation
+	 */
+	Printer(PrintLimits limits) {
+		this.limits = limits;
+	}
 
 	/**
 	 * Print the values of the given object
@@ -46,14 +80,12 @@ public class Printer {
 	 *            the object to display in the console
 	 */
 	public static void print(Object obj) {
-		hashmap.clear();
-		counter = 0;
-		System.out.println(makeString(obj));
+		System.out.println(produceString(obj));
 	}
 
 	/**
 	 * Produce a <code>String</code> representation of the values of the given
-	 * object
+	 * object, within the limits given by the system properties
 	 *
 	 * @param obj
 	 *            the object to represent
@@ -61,14 +93,29 @@ public class Printer {
 	 *         object
 	 */
 	public static String produceString(Object obj) {
-		hashmap.clear();
-		counter = 0;
-		return makeString(obj);
+		return produceString(obj, PrintLimits.fromProperties());
 	}
 
 	/**
 	 * Produce a <code>String</code> representation of the values of the given
-	 * object
+	 * object, within the given limits
+	 *
+	 * @param obj
+	 *            the object to represent
+	 * @param limits
+	 *            the limits on the size of the representation
+	 * @return a <code>String</code> representation of the values of the given
+	 *         object
+	 */
+	public static String produceString(Object obj, PrintLimits limits) {
+		Printer printer = new Printer(limits);
+		printer.makeString(obj, 0);
+		return printer.finish();
+	}
+
+	/**
+	 * Produce a <code>String</code> representation of the values of the given
+	 * object, within the limits given by the system properties
 	 *
 	 * @param it
 	 *            the object that produces the iterator to be used traverse data
@@ -76,14 +123,30 @@ public class Printer {
 	 *         object
 	 */
 	public static <T> String produceIterableStrings(Iterable<T> it) {
-		hashmap.clear();
-		counter = 0;
-		return makeIterableStrings(it.iterator());
+		return produceIterableStrings(it, PrintLimits.fromProperties());
+	}
+
+	/**
+	 * Produce a <code>String</code> representation of the values of the given
+	 * object, within the given limits
+	 *
+	 * @param it
+	 *            the object that produces the iterator to be used traverse data
+	 * @param limits
+	 *            the limits on the size of the representation
+	 * @return a <code>String</code> representation of the values of the given
+	 *         object
+	 */
+	public static <T> String produceIterableStrings(Iterable<T> it,
+			PrintLimits limits) {
+		Printer printer = new Printer(limits);
+		printer.makeIterableStrings(it.iterator(), sizeOf(it), 0);
+		return printer.finish();
 	}
 
 	/**
 	 * Produce a String representation of the values of the given object of the
-	 * type Traversal
+	 * type Traversal, within the limits given by the system properties
 	 *
 	 * @param tr
 	 *            the <CODE>{@link Traversal Traversal}</CODE> iterator to be
@@ -92,13 +155,172 @@ public class Printer {
 	 *         object
 	 */
 	public static <T> String produceTraversalStrings(Traversal<T> tr) {
-		hashmap.clear();
-		counter = 0;
-		return makeTraversalStrings(tr);
+		return produceTraversalStrings(tr, PrintLimits.fromProperties());
+	}
+
+	/**
+	 * Produce a String representation of the values of the given object of the
+	 * type Traversal, within the given limits
+	 *
+	 * @param tr
+	 *            the <CODE>{@link Traversal Traversal}</CODE> iterator to be
+	 *            used traverse data
+	 * @param limits
+	 *            the limits on the size of the representation
+	 * @return a <code>String</code> representation of the values of the given
+	 *         object
+	 */
+	public static <T> String produceTraversalStrings(Traversal<T> tr,
+			PrintLimits limits) {
+		Printer printer = new Printer(limits);
+		printer.makeTraversalStrings(tr, 0);
+		return printer.finish();
 	}
 
 	/**
-	 * Produce a <code>String</code> representation of the given object.
+	 * Produce the output, cut to the number of characters the limits allow
+	 * and marked as such if it is longer.
+	 *
+	 * @return the <code>String</code> representation printed so far
+	 */
+	private String finish() {
+		int maxChars = this.limits.getMaxChars();
+		if (maxChars > 0 && this.out.length() > maxChars) {
+			this.out.setLength(maxChars);
+			this.out.append("\n... (cut at ").append(maxChars)
+					.append(" characters)");
+		}
+		return this.out.toString();
+	}
+
+	/**
+	 * Is the output as long as the limits allow? Once it is, nothing more
+	 * is printed.
+	 *
+	 * @return <code>true</code> if no more output is printed
+	 */
+	private boolean isSpent() {
+		int maxChars = this.limits.getMaxChars();
+		if (!this.spent && maxChars > 0 && this.out.length() >= maxChars)
+			this.spent = true;
+		return this.spent;
+	}
+
+	/**
+	 * Is an object at the given level of nesting too deep to show its
+	 * fields or elements?
+	 *
+	 * @param level
+	 *            the level of nesting of the object
+	 * @return <code>true</code> if only its class is shown
+	 */
+	private boolean isTooDeep(int level) {
+		int maxDepth = this.limits.getMaxDepth();
+		return maxDepth > 0 && level >= maxDepth;
+	}
+
+	/**
+	 * Show that the remaining elements of a collection are left out, if
+	 * the given number of elements is as many as the limits allow.
+	 *
+	 * @param shown
+	 *            the number of elements shown so far
+	 * @param size
+	 *            the number of all elements, or -1 if not known
+	 * @param indent
+	 *            the indentation of the elements
+	 * @return <code>true</code> if the remaining elements are left out
+	 */
+	private boolean elideElements(int shown, int size, String indent) {
+		int maxElements = this.limits.getMaxElements();
+		if (maxElements == 0 || shown < maxElements)
+			return false;
+		this.out.append(",\n").append(indent).append("...");
+		if (size >= 0)
+			this.out.append(" ").append(size - shown);
+		this.out.append(" more elements");
+		return true;
+	}
+
+	/**
+	 * Produce the number of elements of the given <code>Iterable</code>, if
+	 * it can be known without iterating over them.
+	 *
+	 * @param it
+	 *            the <code>Iterable</code> to be represented
+	 * @return the number of elements, or -1 if not known
+	 */
+	private static int sizeOf(Iterable<?> it) {
+		if (it instanceof Collection)
+			return ((Collection<?>) it).size();
+		return -1;
+	}
+
+	/**
+	 * Are there any limits on the size of the output?
+	 *
+	 * @return <code>true</code> if some limit is set
+	 */
+	private boolean isLimited() {
+		return this.limits.getMaxDepth() > 0
+				|| this.limits.getMaxElements() > 0
+				|| this.limits.getMaxChars() > 0
+				|| this.limits.getMaxStringLength() > 0;
+	}
+
+	/**
+	 * Produce the <code>String</code> made by the <code>toString</code>
+	 * method defined by the class of the given object, no longer than the
+	 * limits allow. With limits, the <code>toString</code> method of a
+	 * collection or a map of the Java library is not invoked: its elements
+	 * are shown within the limits instead.
+	 *
+	 * @param obj
+	 *            the object to be represented
+	 * @return the <code>String</code> made by its own <code>toString</code>
+	 *         method, or an empty <code>String</code>
+	 */
+	private String definedToString(Object obj) {
+		if (!this.isLimited())
+			return hasDefinedToString(obj);
+		if ((obj instanceof Iterable || obj instanceof Map)
+				&& obj.getClass().getName().startsWith("java.util"))
+			return "";
+
+		String s = hasDefinedToString(obj);
+		if (s == null)
+			return null;
+		int maxLength = this.limits.getMaxStringLength();
+		if (maxLength > 0 && s.length() > maxLength)
+			s = s.substring(0, maxLength) + "... ("
+					+ (s.length() - maxLength) + " more characters)";
+		// one character past the budget, so that the output is marked as cut
+		int room = Math.max(0, this.limits.getMaxChars() - this.out.length());
+		if (this.limits.getMaxChars() > 0 && s.length() > room + 1)
+			s = s.substring(0, room + 1);
+		return s;
+	}
+
+	/**
+	 * Produce the indentation for the given level of nesting: two spaces for
+	 * every level.
+	 *
+	 * @param level
+	 *            the level of nesting
+	 * @return the <code>String</code> of spaces that indents that level
+	 */
+	private static String indent(int level) {
+		if (level < INDENTS.length)
+			return INDENTS[level];
+		StringBuilder spaces = new StringBuilder(INDENTS[INDENTS.length - 1]);
+		for (int i = INDENTS.length - 1; i < level; i++)
+			spaces.append("  ");
+		return spaces.toString();
+	}
+
+	/**
+	 * Append a <code>String</code> representation of the given object to the
+	 * given <code>StringBuilder</code>.
 	 * <P>
 	 * Show <code>String</code> 'as is'.
 	 * </P>
@@ -123,31 +345,45 @@ public class Printer {
 	 *
 	 * @param obj
 	 *            the given object
-	 * @return a <code>String</code> representation of the given object
+	 * @param level
+	 *            the level of nesting of the given object
 	 */
-	private static String makeString(Object obj) {
+	private void makeString(Object obj, int level) {
+
+		// if the output is as long as allowed, nothing more is shown
+		if (this.isSpent())
+			return;
 
 		// if the object is null, we are done
-		if (obj == null)
-			return "null";
+		if (obj == null) {
+			this.out.append("null");
+			return;
+		}
 
 		// if the object is a String already - show it
-		if (obj instanceof java.lang.String)
-			return " \"" + obj.toString() + "\"";
+		if (obj instanceof java.lang.String) {
+			this.makeStringValue((String) obj);
+			return;
+		}
 
 		// if the object is an instance of Random - show it
-		if (obj instanceof java.util.Random)
-			return " new Random() ";
+		if (obj instanceof java.util.Random) {
+			this.out.append(" new Random() ");
+			return;
+		}
 
 		// if the object is a Color object already - show it
-		if (obj instanceof java.awt.Color)
-			return " \"" + obj.toString() + "\"";
+		if (obj instanceof java.awt.Color) {
+			this.out.append(" \"").append(obj.toString()).append("\"");
+			return;
+		}
 
 		// handle the objects of the type Enum
 		if (obj instanceof java.lang.Enum) {
 			Enum e = (Enum) obj;
-			return e.getDeclaringClass().getName().replace('$', '.') + "."
-					+ e.name();
+			this.out.append(e.getDeclaringClass().getName().replace('$', '.'))
+					.append(".").append(e.name());
+			return;
 		}
 
 		// for WorldImage instances, tunes classes, and all that implement
@@ -155,7 +391,8 @@ public class Printer {
 		// augmented with the appropriate indentation
 		Method tism = toIndentedStringMethod(obj);
 		if (tism != null){
-			return getIndentedString(obj, tism);
+			this.out.append(getIndentedString(obj, tism, indent(level)));
+			return;
 		}
 
 
@@ -165,21 +402,20 @@ public class Printer {
 		// or an instance of a wrapper class - use default toString method
 		if (objClass.isPrimitive()
 				|| Inspector.isWrapperClass(objClass.getName())) {
-			return makePrimitiveStrings(objClass.getName(), obj);
+			this.out.append(makePrimitiveStrings(objClass.getName(), obj));
+			return;
 		}
 
 		// if the objects is an instance of a WorldImage in our world libraries
 		// use its toString method
-		if (Inspector.isWorldImage(obj.getClass().getName()))
-			return obj.toString();
+		if (Inspector.isWorldImage(obj.getClass().getName())) {
+			this.out.append(obj.toString());
+			return;
+		}
 
 		// if the class where the object is defined defined its own toString
 		// method, use the String it produces
-		String s = hasDefinedToString(obj);
-		if (!(s == null))
-			s = s + "\n";
-		else
-			s = "\n";
+		String s = this.definedToString(obj);
 		// System.out.println("returned from hasDefinedString");
 
 		// check whether the object has been viewed before, if not,
@@ -192,53 +428,59 @@ public class Printer {
 		 * instead of obj.hashCode()
 		 */
 
-		Integer i1match = hashmap.get(i1);
+		Integer i1match = this.hashmap.get(i1);
 
 		if (i1match != null) {
 			// object has been displayed already - show class name and its id
-			return obj.getClass().getName() + ":" + i1match;
+			this.out.append(obj.getClass().getName()).append(":").append(i1match);
+			return;
+		} else if (this.isTooDeep(level)) {
+			// too deep to show - show only the class, without a number
+			this.makeElided(obj, s, level);
+			return;
 		} else {
-			counter = counter + 1;
-			i1match = counter;
-			hashmap.put(i1, counter);
+			this.counter = this.counter + 1;
+			i1match = this.counter;
+			this.hashmap.put(i1, this.counter);
 		}
 
 		/** handle the Canvas class in the draw teachpack */
-		if (Inspector.isOurCanvas(obj.getClass().getName()))
-			return obj.toString();
+		if (Inspector.isOurCanvas(obj.getClass().getName())) {
+			this.out.append(obj.toString());
+			return;
+		}
 
 		// if the object is an Array -
 		// traverse over the data
 		if (obj instanceof Object[]) {
 
 			// show the length of the array
-			int length = Array.getLength(obj);
-
-			StringBuilder tmp = new StringBuilder("\n" + INDENT
-					+ " new Object[" + length + "](){");
-			INDENT = INDENT + "  ";
+			Object[] array = (Object[]) obj;
+			this.out.append("\n").append(indent(level)).append(" new Object[")
+					.append(array.length).append("](){");
 
 			// keep track of the index for each element and show it
-			int n = 0;
-			for (int i = 0; i < length; i++) {
-				tmp = tmp.append("\n" + INDENT + "[" + n + "] "
-						+ makeString(((Object[]) obj)[i]) + ",");
-				n = n + 1;
+			String elementIndent = indent(level + 1);
+			for (int i = 0; i < array.length; i++) {
+				if (this.isSpent()
+						|| this.elideElements(i, array.length, elementIndent))
+					break;
+				if (i > 0)
+					this.out.append(",");
+				this.out.append("\n").append(elementIndent).append("[").append(i)
+						.append("] ");
+				this.makeString(array[i], level + 1);
 			}
-			if (Array.getLength(obj) > 0) {
-				tmp.deleteCharAt(tmp.length() - 1);
-			}
-			INDENT = INDENT.substring(0, INDENT.length() - 2);
-			tmp = tmp.append("}");
-			return tmp + "";
+			this.out.append("}");
+			return;
 		}
 
 		// for an instance of a declared class start with the class name
-		String result = s + INDENT + " new " + objClass.getName() + ":"
-				+ i1match + "(";
-		// + ":" + counter + "(";
-		INDENT = INDENT + "  ";
-		String field;
+		if (s != null)
+			this.out.append(s);
+		this.out.append("\n").append(indent(level)).append(" new ")
+				.append(objClass.getName()).append(":").append(i1match)
+				.append("(");
 
 		// if the object is Iterable and a part of Java Collections
 		// traverse over the data generated by the iterator
@@ -246,18 +488,23 @@ public class Printer {
 		// and are invoked by check..Iterable tests
 		if ((obj instanceof Iterable)
 				&& obj.getClass().getName().startsWith("java.util")) {
-			result = result + "){"
-					+ makeIterableStrings(((Iterable<?>) obj).iterator()) + "}";
+			this.out.append("){");
+			this.makeIterableStrings(((Iterable<?>) obj).iterator(),
+					sizeOf((Iterable<?>) obj), level + 1);
+			this.out.append("}");
 		}
 
 		// instance of a Map: show the class and the key-value bindings
 		else if (obj instanceof Map) {
-			result = result + "){" + makeMapStrings((Map<?, ?>) obj) + "}";
+			this.out.append("){");
+			this.makeMapStrings((Map<?, ?>) obj, level + 1);
+			this.out.append("}");
 		}
 
 		/** instance of a class that may have several defined fields */
 		else {
-			Reflector r = new Reflector(obj);
+			FieldLayout r = Reflector.layoutOf(objClass);
+			String fieldIndent = indent(level + 1);
 
 			// TBD: print only the public fields for Java library classes
 			/*
@@ -266,31 +513,25 @@ public class Printer {
 			 */
 
 			/** display all fields */
-			for (Field f : r.sampleDeclaredFields) {
+			for (Field f : r.fields) {
+				if (this.isSpent())
+					break;
 				try {
-                    Reflector.ensureIsAccessible(f);
-
-					if ((f.get(obj)) == null)
-						field = "this." + f.getName() + " = null";
-					else
-						field = "this." + f.getName() + " = "
-								+ makeString(f.get(obj));
-
-					result = result + "\n" + INDENT + field;
+					Object value = f.get(obj);
+					this.out.append("\n").append(fieldIndent).append("this.")
+							.append(f.getName()).append(" = ");
+					this.makeString(value, level + 1);
 
 				} catch (IllegalAccessException e) {
 					System.out.println("makeString cannot access the field "
 							+ f.getName() + " of the class "
-							+ r.sampleClass.getName() + "\n   message: "
+							+ r.className + "\n   message: "
 							+ e.getMessage());
 				}
 			}
 			/** close parentheses and finish up */
-			result = result + ")";
+			this.out.append(")");
 		}
-
-		INDENT = INDENT.substring(0, INDENT.length() - 2);
-		return result;
 	}
 
 	/**
@@ -325,18 +566,16 @@ public class Printer {
 	 *         indicates its <code>Wrapper</code> class name
 	 */
 	private static <T> String makePrimitiveStrings(String className, T value) {
-		StringBuilder result = new StringBuilder();
-
 		if (className.equals("java.lang.Short"))
-			return result + value.toString() + "S";
+			return value.toString() + "S";
 		else if (className.equals("java.lang.Long"))
-			return result + value.toString() + "L";
+			return value.toString() + "L";
 		else if (className.equals("java.lang.Float"))
-			return result + value.toString() + "F";
+			return value.toString() + "F";
 		else if (className.equals("java.math.BigInteger"))
-			return result + value.toString() + "BigInteger";
+			return value.toString() + "BigInteger";
 		else if (className.equals("java.math.BigDecimal"))
-			return result + value.toString() + "BigDecimal";
+			return value.toString() + "BigDecimal";
 		else
 			/*
 			 * (className.equals("java.lang.Integer") ||
@@ -345,63 +584,108 @@ public class Printer {
 			 * className.equals("java.lang.Byte") ||
 			 * className.equals("java.lang.Boolean"))
 			 */
-			return result + value.toString();
+			return value.toString();
+	}
+
+	/**
+	 * Append a <code>String</code> that shows only the class of an object
+	 * that is nested too deep to show its fields or elements.
+	 *
+	 * @param obj
+	 *            the object nested too deep
+	 * @param s
+	 *            the <code>String</code> produced by its own
+	 *            <code>toString</code> method, or <code>null</code>
+	 * @param level
+	 *            the level of nesting of the object
+	 */
+	private void makeElided(Object obj, String s, int level) {
+		if (obj instanceof Object[]) {
+			this.out.append("\n").append(indent(level)).append(" new Object[")
+					.append(((Object[]) obj).length).append("](){...}");
+			return;
+		}
+		if (s != null)
+			this.out.append(s);
+		this.out.append("\n").append(indent(level)).append(" new ")
+				.append(obj.getClass().getName()).append("(...)");
 	}
 
 	/**
-	 * Produce a <code>String</code> that represents the data generated by the
+	 * Append a <code>String</code> that shows the given <code>String</code>
+	 * value in quotes, only as long as the limits allow.
+	 *
+	 * @param s
+	 *            the <code>String</code> to show
+	 */
+	private void makeStringValue(String s) {
+		int maxLength = this.limits.getMaxStringLength();
+		if (maxLength == 0 || s.length() <= maxLength) {
+			this.out.append(" \"").append(s).append("\"");
+			return;
+		}
+		this.out.append(" \"").append(s, 0, maxLength).append("\"... (")
+				.append(s.length() - maxLength).append(" more characters)");
+	}
+
+	/**
+	 * Append a <code>String</code> that represents the data generated by the
 	 * given iterator -- comma separated.
 	 *
 	 * @param it
 	 *            the iterator for generating data
-	 * @return the <code>String</code> that represents all generated data
+	 * @param size
+	 *            the number of the generated data, or -1 if not known
+	 * @param level
+	 *            the level of nesting of the generated data
 	 */
-	private static <T> String makeIterableStrings(Iterator<T> it) {
-		StringBuilder result = new StringBuilder();
+	private <T> void makeIterableStrings(Iterator<T> it, int size, int level) {
+		String elementIndent = indent(level);
 
 		/** keep track of the index for each element and show we are iterating */
 		int n = 0;
 		while (it.hasNext()) {
-			result = result.append("\n" + INDENT + "Iterable[" + n + "] "
-					+ makeString(it.next()) + ",");
+			if (this.isSpent() || this.elideElements(n, size, elementIndent))
+				break;
+			if (n > 0)
+				this.out.append(",");
+			this.out.append("\n").append(elementIndent).append("Iterable[")
+					.append(n).append("] ");
+			this.makeString(it.next(), level);
 			n = n + 1;
 		}
-
-		/** remove the last comma - if any data is present */
-		if (result.length() > 0)
-			result.deleteCharAt(result.length() - 1);
-		return result + "";
 	}
 
 	/**
-	 * Produce a <code>String</code> that represents the data generated by the
+	 * Append a <code>String</code> that represents the data generated by the
 	 * given <CODE>{@link Traversal Traversal}</CODE> -- comma separated.
 	 *
 	 * @param tr
 	 *            the <CODE>{@link Traversal Traversal}</CODE> iterator for
 	 *            generating data
-	 * @return the <code>String</code> that represents all generated data
+	 * @param level
+	 *            the level of nesting of the generated data
 	 */
-	private static <T> String makeTraversalStrings(Traversal<T> tr) {
-		StringBuilder result = new StringBuilder();
+	private <T> void makeTraversalStrings(Traversal<T> tr, int level) {
+		String elementIndent = indent(level);
 
 		/** keep track of the index for each element and show we are iterating */
 		int n = 0;
 		while (!tr.isEmpty()) {
-			result = result.append("\n" + INDENT + "Traversal[" + n + "] "
-					+ makeString(tr.getFirst()) + ",");
+			if (this.isSpent() || this.elideElements(n, -1, elementIndent))
+				break;
+			if (n > 0)
+				this.out.append(",");
+			this.out.append("\n").append(elementIndent).append("Traversal[")
+					.append(n).append("] ");
+			this.makeString(tr.getFirst(), level);
 			n = n + 1;
 			tr = tr.getRest();
 		}
-
-		/** remove the last comma - if any data is present */
-		if (result.length() > 0)
-			result.deleteCharAt(result.length() - 1);
-		return result + "";
 	}
 
 	/**
-	 * Produce a <code>String</code> representation of the entries in the given
+	 * Append a <code>String</code> representation of the entries in the given
 	 * <code>Map</code>.
 	 *
 	 * @param <K>
@@ -410,23 +694,31 @@ public class Printer {
 	 *            the type of the values in this <code>Map</code>
 	 * @param hm
 	 *            the <code>Map</code> to represent as <code>String</code>
-	 * @return a <code>String</code> representation of the key and values in
-	 *         this <code>Map</code>
+	 * @param level
+	 *            the level of nesting of the entries
 	 */
-	private static <K, V> String makeMapStrings(Map<K, V> hm) {
-		StringBuilder result = new StringBuilder();
-		Set<Map.Entry<K, V>> data = new HashSet<Map.Entry<K, V>>(hm.entrySet());
+	private <K, V> void makeMapStrings(Map<K, V> hm, int level) {
+		String entryIndent = indent(level);
+		Set<Map.Entry<K, V>> data = hm.entrySet();
+		// without limits the entries are shown in the order of a copy, as
+		// always; with limits only the entries shown are visited
+		if (this.limits.getMaxElements() == 0
+				&& this.limits.getMaxChars() == 0)
+			data = new HashSet<Map.Entry<K, V>>(data);
 
+		int n = 0;
 		for (Map.Entry<K, V> entry : data) {
-			result = result.append("\n" + INDENT + "(key: "
-					+ makeString(entry.getKey()) + "\n" + INDENT + " value: "
-					+ makeString(entry.getValue()) + "),");
+			if (this.isSpent() || this.elideElements(n, data.size(), entryIndent))
+				break;
+			if (n > 0)
+				this.out.append(",");
+			n = n + 1;
+			this.out.append("\n").append(entryIndent).append("(key: ");
+			this.makeString(entry.getKey(), level);
+			this.out.append("\n").append(entryIndent).append(" value: ");
+			this.makeString(entry.getValue(), level);
+			this.out.append(")");
 		}
-
-		/** remove the last comma - if any data is present */
-		if (result.length() > 0)
-			result.deleteCharAt(result.length() - 1);
-		return result + "";
 	}
 
 	/**
@@ -520,7 +812,7 @@ public class Printer {
 	 * @return the <code>toIndentedString</code> method or <code>null</code>
 	 * if not defined.
 	 */
-	private static Method toIndentedStringMethod(Object o){
+	static Method toIndentedStringMethod(Object o){
 	  Method tsm = null;
 
     // get the class where this object is defined
@@ -552,17 +844,22 @@ public class Printer {
    *
    * @param o
    *            the object to be converted to <code>String</code>
+   * @param tism
+   *            its <code>toIndentedString</code> method
+   * @param indent
+   *            the indentation of the object
    * @return null if the <code>toString</code> method has not been redefined,
    *         or the <code.String</code> generated by the <code>toString</code>
    *         method
    */
-	private static String getIndentedString(Object o, Method tism) {
+	private static String getIndentedString(Object o, Method tism,
+			String indent) {
 
 	  try {
 	    // invoke the toString method and return the String it
 	    // produces
         Reflector.ensureIsAccessible(tism);
-	    return (String) tism.invoke(o, new Object[] {INDENT});
+	    return (String) tism.invoke(o, new Object[] {indent});
 	  }
 	  // *** catch errors in invoking the toString method
 	  catch (IllegalAccessException e) {
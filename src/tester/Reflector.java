@@ -48,10 +48,39 @@ public class Reflector {
 		if (!(sample == null)) {
 			this.sample = sample;
 			this.sampleClass = this.sample.getClass();
-			this.sampleDeclaredFields = this.getFields(sample);
+			this.sampleDeclaredFields = layoutOf(this.sampleClass).fields;
 		}
 	}
 
+	/* ------------------------------------------------------------------ */
+	/* ------------------ The per-class field layout cache -------------- */
+	/* ------------------------------------------------------------------ */
+
+	/**
+	 * The process-wide cache of the field layouts, one per class. The values
+	 * are attached to the <code>Class</code> objects themselves, so the
+	 * cache is thread-safe and does not prevent the classes (and their class
+	 * loaders) from being unloaded.
+	 */
+	private static final ClassValue<FieldLayout> LAYOUTS =
+		new ClassValue<FieldLayout>() {
+			protected FieldLayout computeValue(Class<?> c) {
+				return new FieldLayout(c, packageNameOf(c), fieldsOf(c));
+			}
+		};
+
+	/**
+	 * Produce the cached <code>FieldLayout</code> for the given class: the
+	 * class hierarchy, the package and the declared fields are examined and
+	 * the fields are made accessible only the first time a class is seen.
+	 *
+	 * @param c the class to describe
+	 * @return the <code>FieldLayout</code> for the given class
+	 */
+	/* package */ static FieldLayout layoutOf(Class<?> c) {
+		return LAYOUTS.get(c);
+	}
+
 	/* ------------------------------------------------------------------ */
 	/* --------------- Accessing fields in the super class -------------- */
 	/* ------------------------------------------------------------------ */
@@ -66,20 +95,30 @@ public class Reflector {
 	 *         hierarchy - not including the java library classes
 	 */
 	protected ArrayList<Class<?>> getClasses(Object obj) {
-
-		// a list of class hierarchy for object obj
-		ArrayList<Class<?>> classTower = new ArrayList<Class<?>>();
-
 		// there is nothing in the tower for a null object
 		if (obj == null)
-			return classTower;
-		// add the class of obj to the class tower
-		Class<?> c = obj.getClass();
+			return new ArrayList<Class<?>>();
+		return classTower(obj.getClass());
+	}
+
+	/**
+	 * Produce an <CODE>ArrayList</CODE> of all classes in the class hierarchy
+	 * for the given class, starting with the top-most superclass below
+	 * <code>java.lang.Object</code>.
+	 *
+	 * @param c the class whose hierarchy we examine
+	 * @return <code>ArrayList</code> of all classes in the given class
+	 *         hierarchy - not including the java library classes
+	 */
+	private static ArrayList<Class<?>> classTower(Class<?> c) {
+
+		// a list of class hierarchy for the class c
+		ArrayList<Class<?>> classTower = new ArrayList<Class<?>>();
 
 		// Never read- Weston Jossey
 		// Package p = c.getPackage();
 
-		String cPackageName = getPackageName(c);
+		String cPackageName = packageNameOf(c);
 		classTower.add(c);
 
 		// get info about its super class
@@ -122,6 +161,18 @@ public class Reflector {
 	}
 
 	protected String getPackageName(Class<?> c) {
+		return packageNameOf(c);
+	}
+
+	/**
+	 * Classify the package of the given class: the <code>Object</code> type,
+	 * the wrapper classes, the Java libraries and our own teachpack libraries
+	 * are reported as such, all other classes by their package name.
+	 *
+	 * @param c the class to classify
+	 * @return the package name or the kind of library the class belongs to
+	 */
+	private static String packageNameOf(Class<?> c) {
 		String name = c.getName();
 
 		if (name.equals("java.lang.Object"))
@@ -161,8 +212,22 @@ public class Reflector {
 	 * @return an <CODE>Array</CODE> of fields for the given object
 	 */
 	protected Field[] getFields(Object obj) {
+		if (obj == null)
+			return new Field[0];
+		return layoutOf(obj.getClass()).fields;
+	}
+
+	/**
+	 * Get all fields for the given class, including those defined in its
+	 * super classes, and make them accessible. Invoked only once per class,
+	 * when its <code>FieldLayout</code> is built.
+	 *
+	 * @param c the class for which we look for fields
+	 * @return an <CODE>Array</CODE> of fields for the given class
+	 */
+	private static Field[] fieldsOf(Class<?> c) {
 		ArrayList<Field> allFields = new ArrayList<Field>();
-		ArrayList<Class<?>> classTower = this.getClasses(obj);
+		ArrayList<Class<?>> classTower = classTower(c);
 		// Printout to observe the shown packages
 
 		//if(logger.isDebugEnabled())
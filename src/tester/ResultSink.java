@@ -0,0 +1,72 @@
+package tester;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * A receiver of the test results produced by a <code>Tester</code>. The
+ * <code>Tester</code> hands every result to its sink as soon as the test
+ * has been evaluated, and tells the sink when all tests of an
+ * <code>Examples</code> class have been run.
+ * </P>
+ * <P>
+ * The default sink is a <CODE>{@link MemorySink MemorySink}</CODE> that
+ * keeps the results and prints the usual test report at the end. A
+ * <CODE>{@link ConsoleSink ConsoleSink}</CODE> or a
+ * <CODE>{@link FileSink FileSink}</CODE> writes every result as it
+ * arrives and keeps nothing, so a long test run does not accumulate its
+ * report in memory.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public interface ResultSink {
+
+	/**
+	 * Receive the result of a test that succeeded.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testSucceeded(TestResult result);
+
+	/**
+	 * Receive the result of a test that failed.
+	 *
+	 * @param result the result of the test
+	 */
+	public void testFailed(TestResult result);
+
+	/**
+	 * Finish the report on all tests run so far.
+	 *
+	 * @param tests the number of tests run
+	 * @param errors the number of tests that failed
+	 * @param warnings the number of warnings of inexact comparison issued
+	 * @param full <code>true</code> if the full test report was requested
+	 */
+	public void testsFinished(int tests, int errors, int warnings,
+			boolean full);
+
+	/**
+	 * Finish the report on the times of the tests and of the test methods
+	 * run so far. It follows <code>testsFinished</code>, and only when
+	 * the timing of the tests is turned on.
+	 *
+	 * @param tests the times of the tests
+	 * @param methods the times of the test methods
+	 */
+	public void timingsFinished(Timings tests, Timings methods);
+
+	/**
+	 * Does this sink use the source frames of successful tests? Recording
+	 * the place where a test was invoked costs a walk of the stack, so it
+	 * is done for successful tests only when the sink asks for it; failed
+	 * tests always record it.
+	 *
+	 * @return <code>true</code> if every result needs its source frame
+	 */
+	public boolean needsSourceFrames();
+}
@@ -0,0 +1,143 @@
+package tester;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The stream that replaces <code>System.out</code> and
+ * <code>System.err</code> while several <code>Examples</code> classes run
+ * at the same time: everything a thread prints goes to the stream chosen
+ * for that thread, and to the original stream if none was chosen.
+ * </P>
+ * <P>
+ * The chosen stream is inherited by the threads a thread starts, so the
+ * output of the test methods run on their own threads goes to the same
+ * place as the output of the tester that started them.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class RoutedStream extends OutputStream {
+
+	/** the stream chosen for each thread, <code>null</code> for none */
+	private static final InheritableThreadLocal<OutputStream> TARGET =
+			new InheritableThreadLocal<OutputStream>();
+
+	/** <code>true</code> once <code>System.out</code> has been replaced */
+	private static boolean installed = false;
+
+	/** the streams that replaced <code>System.out</code> and <code>System.err</code> */
+	private static PrintStream routedOut, routedErr;
+
+	/** the original <code>System.out</code> and <code>System.err</code> */
+	private static PrintStream originalOut, originalErr;
+
+	/** the stream used by the threads for which none was chosen */
+	private final OutputStream original;
+
+	/**
+	 * Constructor: route the output that has no chosen stream to the given
+	 * one.
+	 *
+	 * @param original the stream used when no stream was chosen
+	 */
+	private RoutedStream(OutputStream original) {
+		this.original = original;
+	}
+
+	/**
+	 * Replace <code>System.out</code> and <code>System.err</code> with
+	 * routed streams, unless this was done already. Until a thread chooses
+	 * a stream, its output goes where it went before.
+	 */
+	static synchronized void install() {
+		if (installed)
+			return;
+		originalOut = System.out;
+		originalErr = System.err;
+		routedOut = new PrintStream(new RoutedStream(originalOut));
+		routedErr = new PrintStream(new RoutedStream(originalErr));
+		System.setOut(routedOut);
+		System.setErr(routedErr);
+		installed = true;
+	}
+
+	/**
+	 * Produce the stream that writes where the given one writes, no matter
+	 * which stream the current thread chose: the original stream for
+	 * <code>System.out</code> or <code>System.err</code> once they were
+	 * replaced, and the given stream otherwise.
+	 *
+	 * @param out a stream
+	 * @return the stream that is never routed
+	 */
+	static synchronized PrintStream direct(PrintStream out) {
+		if (installed && out == routedOut)
+			return originalOut;
+		if (installed && out == routedErr)
+			return originalErr;
+		return out;
+	}
+
+	/**
+	 * Send the output of the current thread, and of the threads it starts
+	 * from now on, to the given stream.
+	 *
+	 * @param target the stream for the output, or <code>null</code> to
+	 *          send it to the original streams again
+	 */
+	static void route(OutputStream target) {
+		if (target == null)
+			TARGET.remove();
+		else
+			TARGET.set(target);
+	}
+
+	/**
+	 * @return the stream for the output of the current thread
+	 */
+	private OutputStream target() {
+		OutputStream target = TARGET.get();
+		if (target == null)
+			return this.original;
+		return target;
+	}
+
+	/**
+	 * Write the given byte to the stream of the current thread.
+	 *
+	 * @param b the byte to write
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(int b) throws IOException {
+		this.target().write(b);
+	}
+
+	/**
+	 * Write the given bytes to the stream of the current thread.
+	 *
+	 * @param b the bytes to write
+	 * @param off the position of the first byte to write
+	 * @param len the number of bytes to write
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.target().write(b, off, len);
+	}
+
+	/**
+	 * Flush the stream of the current thread.
+	 *
+	 * @throws IOException if the stream cannot be flushed
+	 */
+	public void flush() throws IOException {
+		this.target().flush();
+	}
+}
@@ -0,0 +1,238 @@
+package tester;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * A structural fingerprint of an object graph, used by the
+ * <code>Inspector</code> to reject comparisons of objects that clearly
+ * differ without comparing them pair by pair.
+ * </P>
+ * <P>
+ * The fingerprint combines what the <code>Inspector</code> compares exactly:
+ * the classes of the objects, the lengths of arrays and datasets, the sizes
+ * of sets, the values of strings and of the exact primitive and wrapper
+ * types. It visits the objects in the same depth-first order as the
+ * <code>Inspector</code>, and stops after a fixed number of objects: two
+ * objects the <code>Inspector</code> considers the same always have the
+ * same fingerprint.
+ * </P>
+ * <P>
+ * A fingerprint is only usable if the comparison it replaces could not
+ * have involved inexact numbers or user-defined code: it is
+ * <code>NONE</code> if the visited part of the graph contains a
+ * <code>double</code> or <code>float</code> value, an <code>ISame</code>
+ * object, a <code>Map</code>, one of the library classes compared by their
+ * own <code>equals</code> method, or an object that contains itself.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class StructuralHash {
+
+	/** the fingerprint that cannot rule out any comparison */
+	static final long NONE = 0L;
+
+	/** the largest number of objects visited for one fingerprint */
+	static final int BUDGET = 64;
+
+	/** the multiplier used to combine the parts of the fingerprint */
+	private static final long PRIME = 0x100000001B3L;
+
+	/** the <code>Inspector</code> whose rules the fingerprint follows */
+	private final Inspector inspector;
+
+	/** the objects on the path from the root to the current object */
+	private final Object[] path = new Object[BUDGET];
+
+	/** the number of objects on the path */
+	private int depth;
+
+	/** the number of objects that may still be visited */
+	private int budget;
+
+	/** the fingerprint computed so far */
+	private long hash;
+
+	/** set to <code>false</code> when the fingerprint becomes unusable */
+	private boolean usable;
+
+	/**
+	 * Constructor: a fingerprint that follows the rules of the given
+	 * <code>Inspector</code>, kept by the <code>Inspector</code> and used
+	 * again for every fingerprint it computes.
+	 *
+	 * @param inspector the <code>Inspector</code> that compares the objects
+	 */
+	StructuralHash(Inspector inspector) {
+		this.inspector = inspector;
+	}
+
+	/**
+	 * Compute the fingerprint of the given object.
+	 *
+	 * @param obj the root of the object graph
+	 * @return the fingerprint, or <code>NONE</code> if it is not usable
+	 */
+	long of(Object obj) {
+		this.depth = 0;
+		this.budget = BUDGET;
+		this.hash = 0xCBF29CE484222325L;
+		this.usable = true;
+		try {
+			this.visit(obj);
+		} finally {
+			// a user-defined iterator may have thrown out of the visit
+			while (this.depth > 0)
+				this.path[--this.depth] = null;
+		}
+		if (!this.usable)
+			return NONE;
+		// the mark for the part of the graph that has not been visited
+		this.mix(this.budget > 0 ? 1 : 2);
+		return this.hash == NONE ? 1L : this.hash;
+	}
+
+	/**
+	 * Combine the given value with the fingerprint computed so far.
+	 *
+	 * @param value the value to add to the fingerprint
+	 */
+	private void mix(long value) {
+		this.hash = (this.hash ^ value) * PRIME;
+	}
+
+	/**
+	 * Add the given object and the objects it refers to, in the order in
+	 * which the <code>Inspector</code> compares them, until the budget runs
+	 * out or the fingerprint becomes unusable.
+	 *
+	 * @param obj the object to add
+	 */
+	@SuppressWarnings("unchecked")
+	private void visit(Object obj) {
+		if (!this.usable || this.budget == 0)
+			return;
+		this.budget--;
+
+		if (obj == null) {
+			this.mix(3);
+			return;
+		}
+
+		Class<?> c = obj.getClass();
+		String name = c.getName();
+		this.mix(name.hashCode());
+
+		/** the world teachpack colors are compared by their class only */
+		if (this.inspector.checkIColors(obj, obj))
+			return;
+
+		/** strings and exact wrapper types are compared by equals */
+		if (name.equals("java.lang.String"))
+			this.mix(obj.hashCode());
+		else if (Inspector.isWrapperClass(name)) {
+			if (this.inspector.isDouble(name) || this.inspector.isFloat(name))
+				this.usable = false;
+			else
+				this.mix(obj.hashCode());
+		}
+
+		/** classes compared by the user-defined or library methods */
+		else if (Inspector.isOurCanvas(name) || Inspector.isWorldImage(name)
+				|| Inspector.isTunesPackage(name) || obj instanceof ISame)
+			this.usable = false;
+
+		/** an object that contains itself may stop the comparison early */
+		else if (this.onPath(obj))
+			this.usable = false;
+
+		else {
+			this.path[this.depth++] = obj;
+			if (c.isArray())
+				this.visitArray(obj);
+			else if (obj instanceof Set && name.startsWith("java.util"))
+				this.mix(((Set<?>) obj).size());
+			else if (obj instanceof Iterable && name.startsWith("java.util"))
+				this.visitIterable((Iterable<Object>) obj);
+			else if (obj instanceof Map && name.startsWith("java.util"))
+				this.usable = ((Map<?, ?>) obj).isEmpty();
+			else
+				this.visitFields(obj);
+			this.path[--this.depth] = null;
+		}
+	}
+
+	/**
+	 * Is the given object one of the objects on the path to it?
+	 *
+	 * @param obj the object to look for
+	 * @return <code>true</code> if the object contains itself
+	 */
+	private boolean onPath(Object obj) {
+		for (int i = 0; i < this.depth; i++)
+			if (this.path[i] == obj)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Add the length and the elements of the given array.
+	 *
+	 * @param array the array to add
+	 */
+	private void visitArray(Object array) {
+		int length = Array.getLength(array);
+		this.mix(length);
+		for (int i = 0; i < length && this.usable && this.budget > 0; i++)
+			this.visit(Array.get(array, i));
+	}
+
+	/**
+	 * Add the elements of the given dataset followed by their count.
+	 *
+	 * @param data the dataset to add
+	 */
+	private void visitIterable(Iterable<Object> data) {
+		int count = 0;
+		Iterator<Object> it = data.iterator();
+		while (it.hasNext() && this.usable && this.budget > 0) {
+			this.visit(it.next());
+			count++;
+		}
+		this.mix(count);
+	}
+
+	/**
+	 * Add the values of the fields of the given object.
+	 *
+	 * @param obj the object to add
+	 */
+	private void visitFields(Object obj) {
+		FieldLayout layout = Reflector.layoutOf(obj.getClass());
+		FieldAccessor[] accessors = layout.accessors;
+		if (accessors == null) {
+			this.usable = layout.fields.length == 0;
+			return;
+		}
+
+		for (int i = 0; i < accessors.length && this.usable
+				&& this.budget > 0; i++) {
+			FieldAccessor accessor = accessors[i];
+			if (accessor instanceof FieldAccessor.ExactAccessor)
+				this.mix(((FieldAccessor.ExactAccessor) accessor).hash(obj));
+			else if (accessor instanceof FieldAccessor.ReferenceAccessor)
+				this.visit(((FieldAccessor.ReferenceAccessor) accessor).get(obj));
+			else // an inexact primitive value
+				this.usable = false;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package tester;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The test methods of one <code>Examples</code> class, found once per
+ * class and kept by the <code>Tester</code>, with a pre-built invoker for
+ * each of them.
+ * </P>
+ * <P>
+ * The invoker is a <code>MethodHandle</code> adapted to take the instance
+ * of the <code>Examples</code> class and the <code>Tester</code>, built
+ * when the test methods are found. A test method for which no invoker can
+ * be built -- one that does not accept a <code>Tester</code> -- is invoked
+ * reflectively, so that it fails exactly as it always did.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class TestMethods {
+
+	/** the lookup used to unreflect the (already accessible) methods */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/** the type of every invoker: the Examples instance and the Tester */
+	private static final MethodType INVOKER = MethodType.methodType(
+			void.class, Object.class, Tester.class);
+
+	/** the test methods, in the order in which they are run */
+	final List<Method> methods;
+
+	/** the invoker of every test method that has one */
+	private final IdentityHashMap<Method, MethodHandle> invokers =
+			new IdentityHashMap<Method, MethodHandle>();
+
+	/**
+	 * Constructor: record the given test methods and build their invokers.
+	 *
+	 * @param methods the accessible test methods of one class
+	 */
+	TestMethods(ArrayList<Method> methods) {
+		this.methods = Collections.unmodifiableList(methods);
+		for (Method method : methods) {
+			MethodHandle invoker = invokerFor(method);
+			if (invoker != null)
+				this.invokers.put(method, invoker);
+		}
+	}
+
+	/**
+	 * Invoke the given test method on the given instance.
+	 *
+	 * @param method one of the test methods
+	 * @param examples the instance of the class that defines the tests
+	 * @param t the <code>Tester</code> that performs the tests
+	 * @throws IllegalAccessException if the method cannot be invoked
+	 * @throws InvocationTargetException if the method threw an exception
+	 */
+	void invoke(Method method, Object examples, Tester t)
+			throws IllegalAccessException, InvocationTargetException {
+		MethodHandle invoker = this.invokers.get(method);
+		if (invoker == null) {
+			method.invoke(examples, new Object[] { t });
+			return;
+		}
+		try {
+			invoker.invokeExact(examples, t);
+		} catch (Throwable e) { // thrown by the test method itself
+			throw new InvocationTargetException(e);
+		}
+	}
+
+	/**
+	 * Build the invoker for the given test method.
+	 *
+	 * @param method an accessible test method
+	 * @return the invoker, or <code>null</code> if the method does not
+	 *         accept a <code>Tester</code> and is invoked reflectively
+	 */
+	private static MethodHandle invokerFor(Method method) {
+		Class<?>[] parameters = method.getParameterTypes();
+		if (parameters.length != 1 || method.isVarArgs()
+				|| !parameters[0].isAssignableFrom(Tester.class))
+			return null;
+		try {
+			MethodHandle handle = LOOKUP.unreflect(method);
+			if (Modifier.isStatic(method.getModifiers()))
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			return handle.asType(INVOKER);
+		} catch (IllegalAccessException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package tester;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The result of one test, as handed by a <code>Tester</code> to its
+ * <CODE>{@link ResultSink ResultSink}</CODE>: the number and the name of the
+ * test, whether it succeeded, the text that shows it in the test report,
+ * the place in the user's code where the test was invoked, how long the
+ * test took, and whether it compared inexact numbers.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public final class TestResult {
+
+	/** the number of the test in the current run, assigned when reported */
+	int number = 0;
+
+	/** <code>true</code> if the test succeeded */
+	private final boolean success;
+
+	/** the name of the test, as given by the user */
+	private final String name;
+
+	/** the start of the report on the test, followed by the test number */
+	private final String header;
+
+	/** the rest of the report on the test */
+	private final String text;
+
+	/** the place where the test was invoked, or <code>null</code> */
+	private final CallSite site;
+
+	/** the time the test took, in nanoseconds */
+	private final long duration;
+
+	/** <code>true</code> if the test compared inexact numbers */
+	private final boolean warning;
+
+	/**
+	 * Constructor: the result of one test, not numbered yet.
+	 *
+	 * @param success <code>true</code> if the test succeeded
+	 * @param name the name of the test
+	 * @param header the start of the report, followed by the test number
+	 * @param text the rest of the report
+	 * @param site the place where the test was invoked, or
+	 *          <code>null</code> if it was not recorded
+	 * @param duration the time the test took, in nanoseconds
+	 * @param warning <code>true</code> if the test compared inexact numbers
+	 */
+	TestResult(boolean success, String name, String header, String text,
+			CallSite site, long duration, boolean warning) {
+		this.success = success;
+		this.name = name;
+		this.header = header;
+		this.text = text;
+		this.site = site;
+		this.duration = duration;
+		this.warning = warning;
+	}
+
+	/**
+	 * @return the number of the test in the current run
+	 */
+	public int getNumber() {
+		return this.number;
+	}
+
+	/**
+	 * @return <code>true</code> if the test succeeded
+	 */
+	public boolean isSuccess() {
+		return this.success;
+	}
+
+	/**
+	 * @return the name of the test, as given by the user -- it may be
+	 *         empty
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @return the result of the test, as it appears in the test report
+	 */
+	public String getReport() {
+		return this.header + this.number + this.text;
+	}
+
+	/**
+	 * @return the frame of the user's code where the test was invoked, or
+	 *         <code>null</code> if it was not recorded
+	 */
+	public StackTraceElement getSourceFrame() {
+		if (this.site == null)
+			return null;
+		return this.site.frame();
+	}
+
+	/**
+	 * @return the time the test took, in nanoseconds
+	 */
+	public long getDurationNanos() {
+		return this.duration;
+	}
+
+	/**
+	 * @return <code>true</code> if the test compared inexact numbers and a
+	 *         warning was issued
+	 */
+	public boolean hasWarning() {
+		return this.warning;
+	}
+}
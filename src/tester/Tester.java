@@ -6,14 +6,15 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,7 +30,9 @@ import java.util.regex.Pattern;
  * <P>
  * A test harness that compares arbitrary objects for extensional equality.
  * </P>
- * <P>It catches exceptions in tests - the remaining tests are omitted.</P>
+ * <P>It catches exceptions in tests: an exception thrown by a test method
+ * is reported as a failed test and ends only that test method -- the
+ * remaining test methods still run.</P>
  *
  * <P>It uses the visitor pattern to accept test cases.</P>
  *
@@ -50,13 +53,35 @@ public class Tester {
 	/** A <code>String</code> that reports the current tester version */	
 	private static String version;
 
-	/** A <code>String</code> that records the results for all failed tests */
-	protected StringBuilder failedResults = new StringBuilder(
-			"Failed test results: \n--------------\n");
+	/** the receiver of the test results when no other one is set */
+	private final MemorySink defaultSink = new MemorySink();
 
-	/** A <code>String</code> that records all test results */
-	protected StringBuilder fullTestResults = new StringBuilder(
-			"Full test results: " + "\n-------------------\n");
+	/** the receiver of all test results */
+	private ResultSink sink = this.sinkProperty();
+
+	/**
+	 * A <code>String</code> that records the results for all failed tests
+	 * reported to the default <code>MemorySink</code> -- it stays empty
+	 * when another <code>ResultSink</code> is set.
+	 *
+	 * @deprecated the results go to the
+	 *             <CODE>{@link #getResultSink() ResultSink}</CODE>; use
+	 *             <code>MemorySink.getFailedResults</code>
+	 */
+	@Deprecated
+	protected StringBuilder failedResults = this.defaultSink.failedResults;
+
+	/**
+	 * A <code>String</code> that records all test results reported to the
+	 * default <code>MemorySink</code> -- it stays empty when another
+	 * <code>ResultSink</code> is set.
+	 *
+	 * @deprecated the results go to the
+	 *             <CODE>{@link #getResultSink() ResultSink}</CODE>; use
+	 *             <code>MemorySink.getFullTestResults</code>
+	 */
+	@Deprecated
+	protected StringBuilder fullTestResults = this.defaultSink.fullTestResults;
 
 	/** the total number of tests */
 	protected int numberOfTests;
@@ -70,12 +95,116 @@ public class Tester {
 	/** the name of the current test */
 	protected String testname;
 
+	/**
+	 * the tolerance and the record of inexact comparisons for the tests run
+	 * by this <code>Tester</code>
+	 */
+	final ComparisonContext context = new ComparisonContext();
+
 	/** An instance of the Inspector to use throughout */
-	protected Inspector inspector = new Inspector();
+	protected Inspector inspector = new Inspector(this.context);
+
+	/**
+	 * The name of the system property that selects the number of threads
+	 * that run the test methods: <code>true</code> for one thread per
+	 * processor, or the number of threads. Each test method then runs on a
+	 * new instance of the <code>Examples</code> class, see
+	 * <CODE>{@link #setParallelism(int) setParallelism}</CODE>.
+	 */
+	public static final String PARALLEL_PROPERTY = "tester.parallel";
+
+	/** the number of threads that run the test methods */
+	private int parallelism = parallelismProperty();
+
+	/**
+	 * The name of the system property that sets the time limit for one
+	 * test method, in milliseconds. A test method out of time is abandoned,
+	 * not killed, see <CODE>{@link #setTimeout(long) setTimeout}</CODE>.
+	 */
+	public static final String TIMEOUT_PROPERTY = "tester.timeout";
+
+	/**
+	 * The name of the system property that sets the time limit for all
+	 * test methods of an <code>Examples</code> class, in milliseconds.
+	 */
+	public static final String SUITE_TIMEOUT_PROPERTY = "tester.suiteTimeout";
+
+	/** the time limit for one test method in milliseconds, 0 for none */
+	private long timeout = timeoutProperty(TIMEOUT_PROPERTY);
+
+	/** the time limit for all test methods in milliseconds, 0 for none */
+	private long suiteTimeout = timeoutProperty(SUITE_TIMEOUT_PROPERTY);
+
+	/**
+	 * The name of the system property that turns on the timing of tests
+	 * and test methods: <code>true</code> to report the 10 slowest of
+	 * each, or the number of the slowest ones to report.
+	 */
+	public static final String TIMING_PROPERTY = "tester.timing";
+
+	/** the number of slowest tests reported, -1 if timing is off */
+	private int timing = timingProperty();
+
+	/** the times of the tests, or <code>null</code> if timing is off */
+	private Timings checkTimings = null;
+
+	/** the times of the test methods, or <code>null</code> if timing is off */
+	private Timings methodTimings = null;
+
+	/**
+	 * The name of the system property that turns on the reports of the
+	 * first difference: <code>true</code> to show only where the actual
+	 * and the expected values of a failed test differ.
+	 */
+	public static final String DIFF_PROPERTY = "tester.diff";
+
+	/**
+	 * The name of the system property that selects where the test results
+	 * go when no <CODE>{@link ResultSink ResultSink}</CODE> is set:
+	 * <code>console</code> prints every failed test as soon as it has been
+	 * evaluated and keeps nothing, see
+	 * <CODE>{@link ConsoleSink ConsoleSink}</CODE>. By default all results
+	 * are kept by a <CODE>{@link MemorySink MemorySink}</CODE> and printed
+	 * at the end, so the memory they use grows with the number of tests.
+	 */
+	public static final String SINK_PROPERTY = "tester.sink";
+
+	/** <code>true</code> if a failed test shows only the first difference */
+	private boolean diffReports = Boolean.getBoolean(DIFF_PROPERTY);
+
+	/**
+	 * the results of the test method this tester runs on behalf of another
+	 * tester, or <code>null</code> if the results go into this report
+	 */
+	private MethodResults recorder = null;
+
+	/**
+	 * The test methods of every class that defines tests, found for a
+	 * plain <code>Tester</code> the first time the class is tested. The
+	 * values are attached to the <code>Class</code> objects themselves, so
+	 * the cache is thread-safe and does not keep the classes loaded.
+	 */
+	private static final ClassValue<TestMethods> TEST_METHODS =
+		new ClassValue<TestMethods>() {
+			protected TestMethods computeValue(Class<?> c) {
+				return new TestMethods(searchTestMethods(c, Tester.class));
+			}
+		};
+
+	/**
+	 * <code>false</code> if the values compared by the successful tests are
+	 * not shown, because the full test report was not requested
+	 */
+	private boolean renderSuccesses = true;
+
+	/** the time when the current test started, 0 if none is running */
+	private long checkStart = 0;
+
+	/** the time the current test took, recorded when it stopped */
+	private long checkDuration = 0;
 
 	/** start with no tests and no failures */
 	public Tester() {
-		Inspector.TOLERANCE = 0.001;
 		this.numberOfTests = 0;
 		this.errors = 0;
 		this.warnings = 0;
@@ -196,6 +325,8 @@ public class Tester {
 	 */
 	protected void runAnyTests(Object f, boolean full, boolean printall) {
 		this.numberOfTests = 0; // number of tests run
+		this.renderSuccesses = full;
+		this.startTiming();
 		boolean failed = false; // any tests failed?
 
 		System.out.println(version);
@@ -238,14 +369,23 @@ public class Tester {
 				// invoke every method that starts with 'test'
 				// and accepts one Tester argument (ignore the resulting
 				// boolean)
-				Object[] args = new Object[] { this };
-
 				try {
-					for (Method testMethod : testMethods) {
-						if (testMethod != null) {
-							testMethod.invoke(f, args);
+					if (this.canRunSupervised(testMethods))
+						this.runSupervised(f, testMethods);
+					else
+						for (Method testMethod : testMethods) {
+							if (testMethod != null) {
+								// an exception ends only its own test method
+								long start = System.nanoTime();
+								try {
+									this.invokeTestMethod(f, testMethod);
+									this.recordMethodTime(testMethod.getName(),
+											System.nanoTime() - start);
+								} catch (InvocationTargetException e) {
+									this.methodThrew(testMethod, e.getCause());
+								}
+							}
 						}
-					}
 				}
 
 				// catch all exceptions
@@ -283,6 +423,7 @@ public class Tester {
 	 */
 	protected void runTests(IExamples f, boolean full, boolean printall) {
 		this.numberOfTests = 0;
+		this.renderSuccesses = full;
 		boolean failed = false;
 
 		if (printall){
@@ -291,7 +432,9 @@ public class Tester {
 		}
 
 		try {
+			long start = System.nanoTime();
 			f.tests(this);
+			this.recordMethodTime("tests", System.nanoTime() - start);
 		} catch (Throwable e) { // catch all exceptions
 			this.errors = this.errors + 1;
 			this.numberOfTests = this.numberOfTests + 1;
@@ -308,6 +451,593 @@ public class Tester {
 		}
 	}
 
+	/*--------------- Running test methods in parallel -----------------*/
+
+	/**
+	 * <P>Set the number of threads that run the test methods of an
+	 * <code>Examples</code> class. With more than one thread every test
+	 * method runs with its own <code>Tester</code>, and an exception thrown
+	 * by one test method does not stop the others.</P>
+	 *
+	 * <P>The results are reported in the order of the test methods, with
+	 * the same numbers as when the methods run one after another.
+	 * Every test method starts with the tolerance of this tester.</P>
+	 *
+	 * <P><B>Every test method runs on a new instance of the
+	 * <code>Examples</code> class</B>, made by its constructor without
+	 * arguments, so test methods that set or change the fields of the
+	 * class -- for example by an <code>initData()</code> method -- do not
+	 * interfere with each other. A test method therefore does not see the
+	 * changes made by the test methods before it, nor the changes made to
+	 * the given instance after it was constructed. If the class has no
+	 * constructor without arguments, all test methods share the given
+	 * instance and must not change its fields. Data shared in other ways,
+	 * such as static fields, are never copied.</P>
+	 *
+	 * <P>The default is given by the system property
+	 * <code>tester.parallel</code>; without it the test methods run one
+	 * after another.</P>
+	 *
+	 * @param threads the number of threads, 1 to run the test methods
+	 *          one after another
+	 */
+	public void setParallelism(int threads) {
+		this.parallelism = Math.max(1, threads);
+	}
+
+	/**
+	 * Produce the number of threads that run the test methods.
+	 *
+	 * @return the number of threads, 1 if the test methods run one after
+	 *         another
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Read the number of threads from the system property
+	 * <code>tester.parallel</code>.
+	 *
+	 * @return the number of threads, 1 if the property is not set or not
+	 *         valid
+	 */
+	private static int parallelismProperty() {
+		String value = System.getProperty(PARALLEL_PROPERTY);
+		if (value == null || value.equals("false"))
+			return 1;
+		if (value.equals("true"))
+			return Runtime.getRuntime().availableProcessors();
+		try {
+			return Math.max(1, Integer.parseInt(value.trim()));
+		} catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
+	/**
+	 * <P>Set the time limit for one test method of an
+	 * <code>Examples</code> class. A test method that does not finish in
+	 * time is interrupted and abandoned, and reported as a failed test; the
+	 * remaining test methods still run. With a time limit every test method
+	 * runs with its own <code>Tester</code>, on its own thread, and on a new
+	 * instance of the <code>Examples</code> class as described for
+	 * <CODE>{@link #setParallelism(int) setParallelism}</CODE>.</P>
+	 *
+	 * <P><B>An abandoned test method is not killed</B>: Java cannot stop a
+	 * thread that ignores the interrupt, so the method may keep running
+	 * while the remaining test methods run. Its results are ignored, but
+	 * what it prints still goes where the output of the tests goes, and
+	 * whatever data it shares with the remaining test methods -- static
+	 * fields, or the <code>Examples</code> instance itself when the class
+	 * has no constructor without arguments -- it may still change. The
+	 * results of the test methods that run after a time limit ran out may
+	 * therefore be affected by it.</P>
+	 *
+	 * <P>The default is given by the system property
+	 * <code>tester.timeout</code>; without it there is no time limit.</P>
+	 *
+	 * @param millis the time limit in milliseconds, 0 for no limit
+	 */
+	public void setTimeout(long millis) {
+		this.timeout = Math.max(0, millis);
+	}
+
+	/**
+	 * Produce the time limit for one test method.
+	 *
+	 * @return the time limit in milliseconds, 0 if there is no limit
+	 */
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * <P>Set the time limit for all test methods of an
+	 * <code>Examples</code> class. When it runs out, the test methods that
+	 * are still running are interrupted and abandoned, those that did not
+	 * start yet are not run, and all of them are reported as failed
+	 * tests. The test methods that were stopped may keep running, as
+	 * described for <CODE>{@link #setTimeout(long) setTimeout}</CODE>.</P>
+	 *
+	 * <P>The default is given by the system property
+	 * <code>tester.suiteTimeout</code>; without it there is no time
+	 * limit.</P>
+	 *
+	 * @param millis the time limit in milliseconds, 0 for no limit
+	 */
+	public void setSuiteTimeout(long millis) {
+		this.suiteTimeout = Math.max(0, millis);
+	}
+
+	/**
+	 * Produce the time limit for all test methods of an
+	 * <code>Examples</code> class.
+	 *
+	 * @return the time limit in milliseconds, 0 if there is no limit
+	 */
+	public long getSuiteTimeout() {
+		return this.suiteTimeout;
+	}
+
+	/**
+	 * Read a time limit from the given system property.
+	 *
+	 * @param property the name of the system property
+	 * @return the time limit in milliseconds, 0 if the property is not set
+	 *         or not valid
+	 */
+	private static long timeoutProperty(String property) {
+		String value = System.getProperty(property);
+		if (value == null)
+			return 0;
+		try {
+			return Math.max(0, Long.parseLong(value.trim()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Do the given test methods run on their own threads? They do if they
+	 * run in parallel or with a time limit, and if there is a way to make a
+	 * new tester of the class of this tester for each test method.
+	 *
+	 * @param testMethods the test methods to run
+	 * @return <code>true</code> if the methods run on their own threads
+	 */
+	private boolean canRunSupervised(ArrayList<Method> testMethods) {
+		boolean parallel = this.parallelism > 1 && testMethods.size() > 1;
+		boolean limited = this.timeout > 0 || this.suiteTimeout > 0;
+		return (parallel || limited) && this.newMethodTester() != null;
+	}
+
+	/**
+	 * Make a new tester of the class of this tester, to run one test method.
+	 *
+	 * @return the new tester, or <code>null</code> if the class of this
+	 *         tester cannot be instantiated without arguments
+	 */
+	private Tester newMethodTester() {
+		if (this.getClass() == Tester.class)
+			return new Tester();
+		try {
+			Constructor<? extends Tester> constructor =
+					this.getClass().getDeclaredConstructor();
+			Reflector.ensureIsAccessible(constructor);
+			return constructor.newInstance();
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * <P>Run every test method with its own tester on its own thread, at
+	 * most <code>parallelism</code> at a time, and add their results to the
+	 * report of this tester in the order of the test methods.</P>
+	 *
+	 * <P>A test method that does not finish within the time limit for one
+	 * method, or before the time limit for all methods runs out, is
+	 * interrupted and abandoned: it is reported as a failed test and its
+	 * results are ignored. The test methods that did not start before the
+	 * time limit for all methods ran out are reported as failed tests too.
+	 * </P>
+	 *
+	 * <P>An abandoned test method keeps running until it notices the
+	 * interrupt, if ever, on its own instance of the class that defines the
+	 * tests when one could be made, and with the output streams of the
+	 * thread that started it.</P>
+	 *
+	 * @param f the instance of the class that defines the tests
+	 * @param testMethods the test methods to run
+	 * @throws InterruptedException if the thread that runs the tests is
+	 *           interrupted
+	 */
+	private void runSupervised(Object f, ArrayList<Method> testMethods)
+			throws InterruptedException {
+		int count = testMethods.size();
+		MethodResults[] results = new MethodResults[count];
+		Thread[] threads = new Thread[count];
+		long[] starts = new long[count];
+		long[] deadlines = new long[count];
+		LinkedBlockingQueue<MethodResults> finished =
+				new LinkedBlockingQueue<MethodResults>();
+
+		long suiteDeadline = Long.MAX_VALUE;
+		if (this.suiteTimeout > 0)
+			suiteDeadline = System.nanoTime()
+					+ TimeUnit.MILLISECONDS.toNanos(this.suiteTimeout);
+
+		int next = 0;      // the next test method to start
+		int reported = 0;  // the next test method to report
+		int running = 0;   // the number of test methods running
+		while (reported < count) {
+			long now = System.nanoTime();
+
+			// start the next test methods while there are free threads
+			while (next < count && running < this.parallelism
+					&& now < suiteDeadline) {
+				threads[next] = this.startMethod(f, testMethods.get(next),
+						next, finished);
+				starts[next] = now;
+				deadlines[next] = suiteDeadline;
+				if (this.timeout > 0)
+					deadlines[next] = Math.min(suiteDeadline,
+							now + TimeUnit.MILLISECONDS.toNanos(this.timeout));
+				running = running + 1;
+				next = next + 1;
+			}
+
+			// the rest cannot start once the time for all tests ran out
+			for (; next < count && now >= suiteDeadline; next++)
+				results[next] = this.timedOut(testMethods.get(next), next, 0,
+						"was not run: the time limit of " + this.suiteTimeout
+						+ " ms for all test methods ran out");
+
+			// report the test methods that finished, in their order
+			for (; reported < next && results[reported] != null; reported++)
+				this.addResults(results[reported]);
+			if (reported == count)
+				break;
+
+			// wait for a test method to finish or for the first deadline
+			long deadline = Long.MAX_VALUE;
+			for (int i = reported; i < next; i++)
+				if (results[i] == null)
+					deadline = Math.min(deadline, deadlines[i]);
+			MethodResults done;
+			if (deadline == Long.MAX_VALUE)
+				done = finished.take();
+			else
+				done = finished.poll(deadline - now, TimeUnit.NANOSECONDS);
+
+			if (done != null) {
+				// the results of an abandoned test method are ignored
+				if (results[done.index] == null) {
+					results[done.index] = done;
+					running = running - 1;
+				}
+			} else {
+				// interrupt and abandon the test methods out of time
+				now = System.nanoTime();
+				for (int i = reported; i < next; i++) {
+					if (results[i] == null && deadlines[i] <= now) {
+						threads[i].interrupt();
+						results[i] = this.timedOut(testMethods.get(i), i,
+								now - starts[i], this.timeoutMessage(
+										deadlines[i] == suiteDeadline));
+						running = running - 1;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Start running the given test method with its own tester on a new
+	 * thread.
+	 *
+	 * @param f the instance of the class that defines the tests
+	 * @param testMethod the test method to run
+	 * @param index the position of the test method among those run
+	 * @param finished the queue for the results of the test method
+	 * @return the thread that runs the test method
+	 */
+	private Thread startMethod(final Object f, final Method testMethod,
+			final int index, final LinkedBlockingQueue<MethodResults> finished) {
+		final Tester methodTester = this.newMethodTester();
+		methodTester.context.tolerance = this.context.tolerance;
+		methodTester.renderSuccesses = this.renderSuccesses;
+		methodTester.sink = this.sink;
+
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				// the results must be queued, or the tester waits forever
+				MethodResults results;
+				try {
+					results = methodTester.runMethod(examplesFor(f),
+							testMethod, index);
+				} catch (Throwable e) { // catch all exceptions
+					results = new MethodResults(testMethod, index);
+					results.thrown = e;
+				}
+				finished.add(results);
+			}
+		}, "tester: " + testMethod.getName());
+		// an abandoned test method must not keep the program running
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Produce the instance of the class that defines the tests on which one
+	 * test method runs on its own thread: a new instance made by the
+	 * constructor without arguments, so that the test methods that change
+	 * the fields do not interfere, or the given instance if there is no
+	 * such constructor or it fails.
+	 *
+	 * @param f the instance of the class that defines the tests
+	 * @return the instance on which to run the test method
+	 */
+	private static Object examplesFor(Object f) {
+		try {
+			Constructor<?> constructor = f.getClass().getDeclaredConstructor();
+			Reflector.ensureIsAccessible(constructor);
+			return constructor.newInstance();
+		} catch (Exception e) {
+			return f;
+		}
+	}
+
+	/**
+	 * Produce the reason why a test method was stopped.
+	 *
+	 * @param suite <code>true</code> if the time for all test methods ran
+	 *          out, <code>false</code> if the time for one method ran out
+	 * @return the reason, to follow the name of the test method
+	 */
+	private String timeoutMessage(boolean suite) {
+		if (suite)
+			return "was stopped: the time limit of " + this.suiteTimeout
+					+ " ms for all test methods ran out";
+		else
+			return "was stopped: it did not finish within the time limit of "
+					+ this.timeout + " ms";
+	}
+
+	/**
+	 * Produce the results of a test method that ran out of time: one failed
+	 * test that says why.
+	 *
+	 * @param testMethod the test method that ran out of time
+	 * @param index the position of the test method among those run
+	 * @param nanos the time the test method ran, in nanoseconds
+	 * @param reason why the test method was stopped
+	 * @return the results to report for the test method
+	 */
+	private MethodResults timedOut(Method testMethod, int index, long nanos,
+			String reason) {
+		MethodResults results = new MethodResults(testMethod, index);
+		results.nanos = nanos;
+		results.add(new TestResult(false, testMethod.getName(),
+				"Error in test number ",
+				"\nTest method " + testMethod.getName() + " " + reason + "\n",
+				null, nanos, false));
+		return results;
+	}
+
+	/**
+	 * Run the given test method, recording its results instead of reporting
+	 * them.
+	 *
+	 * @param f the instance of the class that defines the tests
+	 * @param testMethod the test method to run
+	 * @param index the position of the test method among those run
+	 * @return the results of the test method
+	 */
+	private MethodResults runMethod(Object f, Method testMethod, int index) {
+		MethodResults results = new MethodResults(testMethod, index);
+		this.recorder = results;
+		long start = System.nanoTime();
+		try {
+			this.invokeTestMethod(f, testMethod);
+		} catch (Throwable e) { // catch all exceptions
+			results.thrown = e;
+		} finally {
+			results.nanos = System.nanoTime() - start;
+			this.recorder = null;
+			results.warnings = this.warnings;
+			results.testname = this.testname;
+		}
+		return results;
+	}
+
+	/**
+	 * Add the results of one test method to the report, numbering the tests
+	 * as if the test method ran in this tester.
+	 *
+	 * @param results the results of the test method
+	 */
+	private void addResults(MethodResults results) {
+		for (TestResult result : results.results)
+			this.addResult(result);
+		this.warnings = this.warnings + results.warnings;
+		this.testname = results.testname;
+
+		if (results.thrown == null)
+			this.recordMethodTime(results.method.getName(), results.nanos);
+		else if (results.thrown instanceof InvocationTargetException)
+			this.methodThrew(results.method,
+					results.thrown.getCause());
+		else
+			this.methodThrew(results.method, results.thrown);
+	}
+
+	/**
+	 * Report the exception thrown by the given test method as a failed test
+	 * named after the method. The exception ends only this test method: the
+	 * remaining test methods are still run.
+	 *
+	 * @param testMethod the test method that threw the exception
+	 * @param thrown the exception it threw
+	 */
+	private void methodThrew(Method testMethod, Throwable thrown) {
+		String name = testMethod.getName();
+		System.out.println("Threw exception during test "
+				+ (this.numberOfTests + 1) + " in the test method " + name);
+		thrown.printStackTrace();
+
+		CallSite site = CallSite.thrown(thrown);
+		this.addError("Threw exception during test ", name, site,
+				"\nTest method " + name + " threw " + thrown + "\n"
+				+ site.render() + "\n");
+	}
+
+	/*------------------- Reporting the first difference ----------------*/
+
+	/**
+	 * <P>Turn on or off the reports of the first difference: a failed test
+	 * that compares two values shows the path to the first place where
+	 * they differ -- for example <code>this.books[3].author.name</code> --
+	 * and the two values there, instead of the two whole values side by
+	 * side. An inexact comparison also shows the relative tolerance it
+	 * used. The path is found by making the failed comparison again, so the
+	 * tests that succeed pay nothing for it.</P>
+	 *
+	 * <P>The default is given by the system property
+	 * <code>tester.diff</code>; without it the whole values are shown.</P>
+	 *
+	 * @param on <code>true</code> to show only the first difference
+	 */
+	public void setDiffReports(boolean on) {
+		this.diffReports = on;
+	}
+
+	/**
+	 * Does a failed test show only the first difference?
+	 *
+	 * @return <code>true</code> if it does
+	 */
+	public boolean getDiffReports() {
+		return this.diffReports;
+	}
+
+	/*---------------------- Timing of the tests ------------------------*/
+
+	/**
+	 * <P>Turn on the timing of the tests and of the test methods: the test
+	 * report ends with the median, 99th percentile and maximum time of a
+	 * test and of a test method, and with the slowest of each.</P>
+	 *
+	 * <P>The default is given by the system property
+	 * <code>tester.timing</code>; without it the tests are not timed.</P>
+	 *
+	 * @param slowest the number of the slowest tests and test methods to
+	 *          report, or a negative number to turn the timing off
+	 */
+	public void setTiming(int slowest) {
+		this.timing = Math.max(-1, slowest);
+		this.startTiming();
+	}
+
+	/**
+	 * Produce the times of the tests run since the last test run started.
+	 *
+	 * @return the times of the tests, or <code>null</code> if timing is off
+	 */
+	public Timings getCheckTimings() {
+		return this.checkTimings;
+	}
+
+	/**
+	 * Produce the times of the test methods run since the last test run
+	 * started.
+	 *
+	 * @return the times of the test methods, or <code>null</code> if timing
+	 *         is off
+	 */
+	public Timings getMethodTimings() {
+		return this.methodTimings;
+	}
+
+	/**
+	 * Read the number of the slowest tests to report from the system
+	 * property <code>tester.timing</code>.
+	 *
+	 * @return the number of the slowest tests, -1 if the property is not
+	 *         set or not valid
+	 */
+	private static int timingProperty() {
+		String value = System.getProperty(TIMING_PROPERTY);
+		if (value == null || value.equals("false"))
+			return -1;
+		if (value.equals("true"))
+			return 10;
+		try {
+			return Math.max(-1, Integer.parseInt(value.trim()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Start recording new times, if timing is on.
+	 */
+	private void startTiming() {
+		if (this.timing < 0) {
+			this.checkTimings = null;
+			this.methodTimings = null;
+		} else {
+			this.checkTimings = new Timings(this.timing);
+			this.methodTimings = new Timings(this.timing);
+		}
+	}
+
+	/**
+	 * Record the time taken by the given test, if timing is on.
+	 *
+	 * @param result the result of the test
+	 */
+	private void recordCheckTime(TestResult result) {
+		if (this.checkTimings != null) {
+			String name = "test number " + result.getNumber();
+			if (result.getName().length() > 0)
+				name = name + ": " + firstLine(result.getName());
+			this.checkTimings.record(name, result.getDurationNanos());
+		}
+	}
+
+	/**
+	 * Record the time taken by the given test method, if timing is on.
+	 *
+	 * @param name the name of the test method
+	 * @param nanos the time it took, in nanoseconds
+	 */
+	private void recordMethodTime(String name, long nanos) {
+		if (this.methodTimings != null)
+			this.methodTimings.record(name, nanos);
+	}
+
+	/**
+	 * Produce the first line of the given text.
+	 *
+	 * @param text the text, possibly with several lines
+	 * @return the text up to the first line break
+	 */
+	private static String firstLine(String text) {
+		int end = text.indexOf('\n');
+		return end < 0 ? text : text.substring(0, end);
+	}
+
+	/**
+	 * Report the times of the tests and test methods, if timing is on.
+	 */
+	private void timingReport() {
+		if (this.checkTimings != null)
+			this.sink.timingsFinished(this.checkTimings, this.methodTimings);
+	}
+
 	/**
 	 * If the test evaluation terminated due to an exception, report the test
 	 * that threw the exception..
@@ -332,7 +1062,7 @@ public class Tester {
 	 * @param epsilon the desired tolerance
 	 */
 	protected boolean setTolerance(double epsilon) {
-		Inspector.TOLERANCE = epsilon;
+		this.context.tolerance = epsilon;
 		return epsilon > 0;
 	}
 
@@ -411,6 +1141,7 @@ public class Tester {
 	 * @return <code>true</code> if the test succeeds
 	 */
 	public boolean checkExpect(boolean result, String testname) {
+		this.startCheck();
 
 		this.testname = testname;
 		if (!result)
@@ -465,14 +1196,12 @@ public class Tester {
 	 * @return <code>true</code> if the test succeeds
 	 */
 	public <T> boolean checkExpect(T actual, T expected, String testname) {
+		this.startCheck();
 		this.testname = testname;
 		return this.report(this.inspector.exactTest() &&
 				this.inspector.isSame(actual, expected) &&
 				!this.inspector.inexactViolation(),
-				testname,
-				"actual:                                 expected:\n" +
-						Printer.combineActualExpected(Printer.produceString(actual),
-								Printer.produceString(expected)) + "\n");
+				testname, this.combine(actual, expected));
 	}
 
 	/**
@@ -508,10 +1237,8 @@ public class Tester {
 	 */
 	public <T> boolean checkInexact(T actual, T expected, double tolerance,
 			String testname) {
-		String result =
-				"actual:                                 expected:\n" +
-						Printer.combineActualExpected(Printer.produceString(actual),
-								Printer.produceString(expected)) + "\n";
+		this.startCheck();
+		Values result = this.combine(actual, expected);
 
 		if (this.inspector.inexactTest(tolerance))
 			return report(false, testname + "\nProvided tolerance value was < 0",
@@ -555,6 +1282,7 @@ public class Tester {
 	 */
 	public <T> boolean checkSet(Set<T> actual, Set<T> expected,
 			String testname) {
+		this.startCheck();
 		this.testname = testname;
 		return this.report(this.inspector.exactTest() &&
 				this.inspector.isSameSet(actual, expected) &&
@@ -589,6 +1317,7 @@ public class Tester {
 	 */
 	public <T> boolean checkIterable(Iterable<T> actual, Iterable<T> expected,
 			String testname) {
+		this.startCheck();
 		this.testname = testname;
 		return this.report(this.inspector.exactTest() &&
 				this.inspector.isSameIterable(actual, expected) &&
@@ -632,6 +1361,7 @@ public class Tester {
 	public <T> boolean checkInexactIterable(Iterable<T> actual,
 			Iterable<T> expected,
 			double tolerance, String testname) {
+		this.startCheck();
 
 		if (this.inspector.inexactTest(tolerance))
 			return report(false, testname + "\nProvided tolerance value was < 0",
@@ -669,6 +1399,7 @@ public class Tester {
 	 */
 	public <T> boolean checkTraversal(Traversal<T> actual, Traversal<T> expected,
 			String testname) {
+		this.startCheck();
 		this.testname = testname;
 		return this.report(this.inspector.exactTest() &&
 				this.inspector.isSameTraversal(actual, expected) &&
@@ -713,6 +1444,7 @@ public class Tester {
 			Traversal<T> expected,
 			double tolerance,
 			String testname) {
+		this.startCheck();
 
 		if (this.inspector.inexactTest(tolerance))
 			return report(false, testname + "\nProvided tolerance value was < 0",
@@ -751,15 +1483,14 @@ public class Tester {
 	 * @return <code>true</code> if the test fails
 	 */
 	public <T> boolean checkFail(T actual, T expected, String testname) {
+		this.startCheck();
 		this.testname = testname;
 
 		return this.report(this.inspector.exactTest() &&
 				(!this.inspector.isSame(actual, expected) ||
 						this.inspector.inexactViolation()),
 						"Failure expected: \n" + testname,
-						"actual:                                 expected:\n" +
-								Printer.combineActualExpected(Printer.produceString(actual),
-										Printer.produceString(expected)) + "\n");
+						this.combine(actual, expected));
 	}
 
 	/**
@@ -789,12 +1520,9 @@ public class Tester {
 	 */
 	public <T> boolean checkInexactFail(T actual, T expected, double tolerance,
 			String testname) {
+		this.startCheck();
 
-		String result =
-
-				"actual:                                 expected:\n" +
-						Printer.combineActualExpected(Printer.produceString(actual),
-								Printer.produceString(expected)) + "\n";
+		Values result = this.combine(actual, expected);
 
 		// test fails if the tolerance is negative
 		if (tolerance < 0)
@@ -875,6 +1603,7 @@ public class Tester {
 	 */
 	private <T> boolean checkPrivateException(String testname,
 			Exception e, T object, String method, Object... args) {
+		this.startCheck();
 		this.testname = testname;
 
 		// create an Array of the argument types
@@ -890,9 +1619,6 @@ public class Tester {
 		String exceptName = exceptClass.getName();
 		String exceptMessage = e.getMessage();
 
-		// get the stack trace for error report before trying to invoke the method
-		String trace = this.getStackTrace();
-
 		try {
 			// find the method
 			Method meth = this
@@ -904,6 +1630,7 @@ public class Tester {
 			Reflector.ensureIsAccessible(meth);
 
 			Object result = meth.invoke(object, args);
+			this.stopCheck();
 
 			// if the invocation succeeds, the test fails because
 			// it does not throw the expected exception
@@ -925,6 +1652,7 @@ public class Tester {
 								+ "\n  expected exception was: \n    class: "
 								+ exceptName + "\n    message: " + exceptMessage);
 		} catch (Throwable exception) {
+			this.stopCheck();
 
 			String excName;
 			String excMessage;
@@ -945,18 +1673,22 @@ public class Tester {
 
 					// report correct exception, correct message -- test
 					// succeeds
-					return this.reportSuccess(testname,
-							"\n correct exception: \n" + "" + " class: "
+					return this.reportSuccess(testname, new Values() {
+						String render() {
+							return "\n correct exception: \n" + "" + " class: "
 									+ exceptName + "\n correct message: "
 									+ exceptMessage
 									+ "\n    after invoking the method " +  method
 									+ "\n    by an object in the class: " + object.getClass().getName()
-									+ "\n    object value was: \n" + Printer.produceString(object));
+									+ "\n    object value was: \n" + Printer.produceString(object);
+						}
+					});
 				} else {
 
 					// report correct exception, incorrect message -- test
 					// fails
-					return this.reportErrors(testname,
+					CallSite site = CallSite.capture();
+					return this.reportErrors(testname, site,
 							"\n correct exception: "
 									+ "\n class: " + exceptName
 									+ "\n incorrect message: \n"
@@ -965,13 +1697,14 @@ public class Tester {
 									+ "\n    after invoking the method " +  method
 									+ "\n    by an object in the class: " + object.getClass().getName()
 									+ "\n    object value was: \n" + Printer.produceString(object)
-									+ "\n\n" + trace + "\n");
+									+ "\n\n" + site.render() + "\n");
 				}
 			} else {
 				// report that method invocation threw an exception of the
 				// wrong
 				// type
-				return this.reportErrors(testname,
+				CallSite site = CallSite.capture();
+				return this.reportErrors(testname, site,
 						"\n incorrect exception was thrown: "
 								+ "\n exception thrown:   " + excName
 								+ "\n exception expected: " + exceptName
@@ -979,7 +1712,7 @@ public class Tester {
 								+ "\n    after invoking the method " +  method
 								+ "\n    by an object in the class: " + object.getClass().getName()
 								+ "\n    object value was: \n" + Printer.produceString(object)
-								+ "\n\n" + trace + "\n");
+								+ "\n\n" + site.render() + "\n");
 			}
 		}
 	}
@@ -1037,6 +1770,7 @@ public class Tester {
 	 */
 	private <T> boolean checkPrivateConstructorException(String testname,
 			Exception e, String className, Object... args) {
+		this.startCheck();
 		this.testname = testname;
 
 		// create an Array of the argument types
@@ -1053,10 +1787,6 @@ public class Tester {
 		String exceptName = exceptClass.getName();
 		String exceptMessage = e.getMessage();
 
-		// get the stack trace for error report before trying to invoke the method
-		String trace = this.getStackTrace();
-
-
 		try {
 			// find the class with the given name
 			Class<?> objectClass = Reflector.classForName(className);
@@ -1069,7 +1799,7 @@ public class Tester {
 			// find the constructor with matching types
 			// invoke matchParams to resolve primitive type matching
 			for (int i = 0; i < Array.getLength(constructors); i++){
-				if (this.matchParams(parameters,
+				if (matchParams(parameters,
 						constructors[i].getParameterTypes())){
 					constr = constructors[i];
 					//System.out.println(constr.toGenericString());
@@ -1087,6 +1817,7 @@ public class Tester {
 
 			// invoke the constructor - should throw the expected exception
 			Object result = constr.newInstance(args);
+			this.stopCheck();
 
 			// if the invocation succeeds, the test fails because
 			// it does not throw the expected exception
@@ -1106,6 +1837,7 @@ public class Tester {
 						+ "\n  expected exception was: \n    class: "
 						+ exceptName + "\n    message: " + exceptMessage);
 		} catch (Throwable exception) {
+			this.stopCheck();
 			String excName;
 			String excMessage;
 			if (exception.getCause() != null) {
@@ -1134,7 +1866,8 @@ public class Tester {
 
 					// report correct exception, incorrect message -- test
 					// fails
-					return this.reportErrors(testname,
+					CallSite site = CallSite.capture();
+					return this.reportErrors(testname, site,
 							"\n correct exception: "
 									+ "\n class: " + exceptName
 									+ "\n incorrect message: \n"
@@ -1142,13 +1875,14 @@ public class Tester {
 									+ "\n message expected: " + exceptMessage
 									+ "\n after invoking the constructor for the class " + className
 									// we may want to print the argument list here - but not for now
-									+ "\n\n" + trace + "\n");
+									+ "\n\n" + site.render() + "\n");
 				}
 			} else {
 				// report that method invocation threw an exception of the
 				// wrong
 				// type
-				return this.reportErrors(testname,
+				CallSite site = CallSite.capture();
+				return this.reportErrors(testname, site,
 						"\n incorrect exception was thrown: "
 								+ "\n exception thrown:   " + excName
 								+ "\n message produced: " + excMessage
@@ -1156,7 +1890,7 @@ public class Tester {
 								+ "\n    with the message: " + exceptMessage
 								+ "\n after invoking the constructor for the class " + className
 								// we may want to print the argument list here - but not for now
-								+ "\n\n" + trace + "\n");
+								+ "\n\n" + site.render() + "\n");
 
 			}
 		}
@@ -1244,6 +1978,7 @@ public class Tester {
 	public <T> boolean checkInexactMethod(
 			String testname, Object expected, double tolerance,
 			T object, String method, Object... args) {
+		this.startCheck();
 		if (this.inspector.inexactTest(tolerance))
 			return reportErrors(testname + "\nProvided tolerance value was < 0",
 					"\n Inexact method invocation test ");
@@ -1266,6 +2001,7 @@ public class Tester {
 	 */
 	private <T> boolean checkPrivateMethod(String testname, Object expected,
 			T object, String method, Object[] args, boolean inexact) {
+		this.startCheck();
 
 		this.testname = testname;
 		// create an Array of the argument types
@@ -1288,6 +2024,7 @@ public class Tester {
 			Method meth = findMethod(object, method, parameters);
 
 			if (meth == null) {
+				this.stopCheck();
 				return report(false, testname + "\nNo method with the name "
 						+ method + " found\n",
 						"Failed to invoke the method "
@@ -1308,12 +2045,13 @@ public class Tester {
 
 				if (inexact) // tolerance has been set already
 					return checkInexact(meth.invoke(object, args), expected,
-							Inspector.TOLERANCE, testmessage);
+							this.context.tolerance, testmessage);
 				else
 					return checkExpect(meth.invoke(object, args), expected,
 							testmessage);
 			}
 		} catch (Throwable exception) {
+			this.stopCheck();
 			String testmessage = testname + "\n"
 					+ Printer.produceString(object) + "\n invoked method "
 					+ method + " in the class " + object.getClass().getName()
@@ -1386,9 +2124,12 @@ public class Tester {
 	 * @return <code>true</code> if the test succeeds
 	 */
 	public <T> boolean checkOneOf(String testname, T actual, T... expected) {
+		this.startCheck();
 
+		long fingerprint = this.inspector.fingerprint(actual);
 		for (int i = 0; i < Array.getLength(expected); i++) {
-			if (this.inspector.isSame(actual, expected[i]) &&
+			if (this.inspector.isSameWithFingerprint(actual, fingerprint,
+					expected[i]) &&
 					!this.inspector.inexactViolation())
 				return this.report(true, testname, this.combine(actual, expected[i]));
 		}
@@ -1426,14 +2167,17 @@ public class Tester {
 	 */
 	public <T> boolean checkInexactOneOf(String testname, double tolerance,
 			T actual, T... expected) {
+		this.startCheck();
 
 		if (this.inspector.inexactTest(tolerance))
 			return report(false, testname + "\nProvided tolerance value was < 0",
 					this.combineOneOf(actual, expected));
 
 		this.testname = testname;
+		long fingerprint = this.inspector.fingerprint(actual);
 		for (int i = 0; i < Array.getLength(expected); i++) {
-			if (this.inspector.isSame(actual, expected[i]))
+			if (this.inspector.isSameWithFingerprint(actual, fingerprint,
+					expected[i]))
 				return this.report(true, testname, this.combine(actual, expected[i]));
 		}
 
@@ -1473,9 +2217,12 @@ public class Tester {
 	 * @return <code>true</code> if the test succeeds
 	 */
 	public <T> boolean checkNoneOf(String testname, T actual, T... expected) {
+		this.startCheck();
 
+		long fingerprint = this.inspector.fingerprint(actual);
 		for (int i = 0; i < Array.getLength(expected); i++) {
-			if (this.inspector.isSame(actual, expected[i]) &&
+			if (this.inspector.isSameWithFingerprint(actual, fingerprint,
+					expected[i]) &&
 					!this.inspector.inexactViolation())
 				return this.report(false,
 						"Matching value found in none-of test\n" + testname,
@@ -1519,14 +2266,17 @@ public class Tester {
 	 */
 	public <T> boolean checkInexactNoneOf(String testname, double tolerance,
 			T actual, T... expected) {
+		this.startCheck();
 
 		if (this.inspector.inexactTest(tolerance))
 			return report(false, testname + "\nProvided tolerance value was < 0",
 					this.combineOneOf(actual, expected));
 
 		this.testname = testname;
+		long fingerprint = this.inspector.fingerprint(actual);
 		for (int i = 0; i < Array.getLength(expected); i++) {
-			if (this.inspector.isSame(actual, expected[i]))
+			if (this.inspector.isSameWithFingerprint(actual, fingerprint,
+					expected[i]))
 				return this.report(false,
 						"Matching value found in none-of test\n" + testname,
 						this.combine(actual, expected[i]));
@@ -1600,9 +2350,10 @@ public class Tester {
 	 */
 	public <T> boolean checkNumRange(Number actual, Number low, Number high,
 			boolean lowIncl, boolean highIncl, String testname) {
+		this.startCheck();
 
 		// do not report inexact comparisons
-		Inspector.INEXACT_COMPARED = false;
+		this.context.inexactCompared = false;
 		this.testname = testname;
 		boolean within = true;
 		boolean aboveLow =
@@ -1696,9 +2447,10 @@ public class Tester {
 	 */
 	public <T> boolean checkRange(Comparable<T> actual, T low, T high,
 			boolean lowIncl, boolean highIncl, String testname) {
+		this.startCheck();
 
 		// do not report inexact comparisons
-		Inspector.INEXACT_COMPARED = false;
+		this.context.inexactCompared = false;
 		this.testname = testname;
 		boolean within = true;
 		boolean aboveLow = true;
@@ -1795,9 +2547,10 @@ public class Tester {
 	 */
 	public <T> boolean checkRange(T actual, T low, T high, boolean lowIncl,
 			boolean highIncl, Comparator<T> comp, String testname) {
+		this.startCheck();
 
 		// do not report inexact comparisons
-		Inspector.INEXACT_COMPARED = false;
+		this.context.inexactCompared = false;
 		this.testname = testname;
 		boolean within = true;
 		boolean aboveLow = true;
@@ -1865,6 +2618,7 @@ public class Tester {
 	 */
 	public <T> boolean checkEquivalent(T obj1, T obj2,
 			Equivalence<T> equiv, String testname) {
+		this.startCheck();
 		this.testname = "Equivalence test: \n" + testname;
 		return this.report(equiv.equivalent(obj1, obj2), testname,
 				this.combine(obj1, obj2));
@@ -1898,7 +2652,7 @@ public class Tester {
 		// / add the test to compare parameters -- invocation with int works!!
 		if (allNamed.size() > 0) {
 			for (Method m : allNamed) {
-				if (this.matchParams(parameters, m.getParameterTypes())){
+				if (matchParams(parameters, m.getParameterTypes())){
 					return m;
 				}
 			}
@@ -1928,23 +2682,13 @@ public class Tester {
 	 */
 	private <T> ArrayList<Method> findTestMethods(T object, String testname) {
 
-		Method[] allMethods = findAllMethods(object.getClass());
-		ArrayList<Method> allNamed = new ArrayList<Method>();
-		Class<?>[] testerParam = new Class[] { this.getClass() };
-
-		// make a list of all methods with the given name
-		for (Method method : allMethods) {
-
-			if (method.getName().startsWith("test")
-					&& this.matchParams(method.getParameterTypes(),
-							testerParam)) {
-				allNamed.add(method);
-				Reflector.ensureIsAccessible(method);
-			} else if (method.getAnnotation(TestMethod.class) != null) {
-				allNamed.add(method);
-				Reflector.ensureIsAccessible(method);
-			}
-		}
+		// the test methods found for a plain Tester are kept per class
+		ArrayList<Method> allNamed;
+		if (this.getClass() == Tester.class)
+			allNamed = new ArrayList<Method>(
+					TEST_METHODS.get(object.getClass()).methods);
+		else
+			allNamed = searchTestMethods(object.getClass(), this.getClass());
 
 		if (allNamed.size() > 0) {
 			// found test methods that matched the given parameter list
@@ -1961,6 +2705,54 @@ public class Tester {
 		}
 	}
 
+	/**
+	 * Search the given class for all test methods (with the name that
+	 * starts with test... and that consume the given kind of
+	 * <code>Tester</code>, or annotated as <code>TestMethod</code>), and make
+	 * them accessible.
+	 *
+	 * @param c the class that defines the tests
+	 * @param testerClass the class of the <code>Tester</code> that runs them
+	 * @return an <code>ArrayList</code> of all test methods, possibly empty
+	 */
+	private static ArrayList<Method> searchTestMethods(Class<?> c,
+			Class<?> testerClass) {
+		ArrayList<Method> allNamed = new ArrayList<Method>();
+		Class<?>[] testerParam = new Class[] { testerClass };
+
+		// make a list of all methods with the given name
+		for (Method method : findAllMethods(c)) {
+
+			if (method.getName().startsWith("test")
+					&& matchParams(method.getParameterTypes(),
+							testerParam)) {
+				allNamed.add(method);
+				Reflector.ensureIsAccessible(method);
+			} else if (method.getAnnotation(TestMethod.class) != null) {
+				allNamed.add(method);
+				Reflector.ensureIsAccessible(method);
+			}
+		}
+		return allNamed;
+	}
+
+	/**
+	 * Invoke the given test method on the given instance of the class that
+	 * defines the tests, through its pre-built invoker when there is one.
+	 *
+	 * @param f the instance of the class that defines the tests
+	 * @param testMethod the test method to invoke
+	 * @throws IllegalAccessException if the method cannot be invoked
+	 * @throws InvocationTargetException if the method threw an exception
+	 */
+	private void invokeTestMethod(Object f, Method testMethod)
+			throws IllegalAccessException, InvocationTargetException {
+		if (this.getClass() == Tester.class)
+			TEST_METHODS.get(f.getClass()).invoke(testMethod, f, this);
+		else
+			testMethod.invoke(f, new Object[] { this });
+	}
+
 	/**
 	 * Finds all of the methods for a particular class, including those that
 	 * are part of a super class. This will stop when it hits java.lang.Object.
@@ -1972,7 +2764,7 @@ public class Tester {
 	 * @param c class to collect methods from
 	 * @return the resulting array of methods found
 	 */
-	private Method[] findAllMethods(Class<?> c) {
+	private static Method[] findAllMethods(Class<?> c) {
 		Class<?> classToSurvey = c;
 
 		ArrayList<Method> list = new ArrayList<Method>();
@@ -2006,7 +2798,7 @@ public class Tester {
 	 * @return <code>true</code> if the parameter lists represent the same classes allowing
 	 *         for primitive types to match their wrapper classes.
 	 */
-	private boolean matchParams(Class<?>[] parInput, Class<?>[] parDefined) {
+	private static boolean matchParams(Class<?>[] parInput, Class<?>[] parDefined) {
 
 		// make sure both methods have the same number of arguments
 		if (Array.getLength(parInput) != Array.getLength(parDefined)){
@@ -2031,7 +2823,7 @@ public class Tester {
 	 * @param parDefined the class of the method parameter
 	 * @return <code>true</code> if the provided argument can be assigned to the method parameter
 	 */
-	private boolean matchPair(Class<?> parInput, Class<?> parDefined){
+	private static boolean matchPair(Class<?> parInput, Class<?> parDefined){
 
 		String in = parInput.getName();
 		String def = parDefined.getName();
@@ -2085,7 +2877,7 @@ public class Tester {
 	 * @param def The name of the primitive or wrapper class to match
 	 * @return <code>true</code> if the two types are compatible
 	 */
-	private boolean isWrapperMatch(String in, String def) {
+	private static boolean isWrapperMatch(String in, String def) {
 		if (def.equals("java.lang.Integer") && in.equals("int"))
 			return true;
 		else if (def.equals("java.lang.Short") && in.equals("short"))
@@ -2169,15 +2961,32 @@ public class Tester {
 	 * @param <T> the type of data that is to be shown
 	 * @param actual the actual value
 	 * @param expected the expected value
-	 * @return a <code>String</code> with two values
+	 * @return the <code>Values</code> that show the two values
 	 * side-by-side, with a marker for the first diff.
 	 */
-	private <T> String combine(T actual, T expected){
-		return
-				"actual:                                 expected:\n" +
-				Printer.combineActualExpected(Printer.produceString(actual),
-						Printer.produceString(expected))
-						+ "\n";
+	private <T> Values combine(final T actual, final T expected){
+		final boolean diff = this.diffReports;
+		final Inspector inspector = this.inspector;
+		return new Values() {
+			String render() {
+				return
+						"actual:                                 expected:\n" +
+						Printer.combineActualExpected(Printer.produceString(actual),
+								Printer.produceString(expected))
+								+ "\n";
+			}
+
+			String renderFailure() {
+				if (!diff)
+					return this.render();
+				Difference d = inspector.mismatch(actual, expected);
+				if (d == null)
+					d = Difference.of(actual, expected);
+				if (d != null)
+					return d.render() + "\n";
+				return this.render();
+			}
+		};
 	}
 
 	/**
@@ -2186,11 +2995,15 @@ public class Tester {
 	 * @param <T>
 	 * @param actual the actual value produced by the test
 	 * @param expected the expected result of the test
-	 * @return combined <code>String</code> that shows the result
+	 * @return combined <code>Values</code> that show the result
 	 */
-	private <T> String combineOneOf(T actual, T... expected){
-		return "actual:   "   + Printer.produceString(actual) +
-				"\nexpected: \n" + Printer.produceString(expected) + "\n";
+	private <T> Values combineOneOf(final T actual, final T... expected){
+		return new Values() {
+			String render() {
+				return "actual:   "   + Printer.produceString(actual) +
+						"\nexpected: \n" + Printer.produceString(expected) + "\n";
+			}
+		};
 	}
 
 	/**
@@ -2199,15 +3012,32 @@ public class Tester {
 	 * @param <T>
 	 * @param actual the actual value produced by the test
 	 * @param expected the expected result of the test
-	 * @return combined <code>String</code> that shows the result
-	 */
-	private <T> String combineIterable(Iterable<T> actual,
-			Iterable<T> expected){
-		return
-				"actual:                                 expected:\n" +
-				Printer.combineActualExpected(Printer.produceIterableStrings(actual),
-						Printer.produceIterableStrings(expected))
-						+ "\n";
+	 * @return combined <code>Values</code> that show the result
+	 */
+	private <T> Values combineIterable(final Iterable<T> actual,
+			final Iterable<T> expected){
+		final boolean diff = this.diffReports;
+		final Inspector inspector = this.inspector;
+		return new Values() {
+			String render() {
+				return
+						"actual:                                 expected:\n" +
+						Printer.combineActualExpected(Printer.produceIterableStrings(actual),
+								Printer.produceIterableStrings(expected))
+								+ "\n";
+			}
+
+			String renderFailure() {
+				if (!diff)
+					return this.render();
+				Difference d = inspector.mismatchIterable(actual, expected);
+				if (d == null)
+					d = Difference.ofIterables(actual, expected);
+				if (d != null)
+					return d.render() + "\n";
+				return this.render();
+			}
+		};
 	}
 
 	/**
@@ -2216,15 +3046,103 @@ public class Tester {
 	 * @param <T>
 	 * @param actual the actual value produced by the test
 	 * @param expected the expected result of the test
-	 * @return combined <code>String</code> that shows the result
+	 * @return combined <code>Values</code> that show the result
+	 */
+	private <T> Values combineTraversal(final Traversal<T> actual,
+			final Traversal<T> expected){
+		final boolean diff = this.diffReports;
+		final Inspector inspector = this.inspector;
+		return new Values() {
+			String render() {
+				return
+						"actual:                                 expected:\n" +
+						Printer.combineActualExpected(Printer.produceTraversalStrings(actual),
+								Printer.produceTraversalStrings(expected))
+								+ "\n";
+			}
+
+			String renderFailure() {
+				if (!diff)
+					return this.render();
+				Difference d = inspector.mismatchTraversal(actual, expected);
+				if (d == null)
+					d = Difference.ofTraversals(actual, expected);
+				if (d != null)
+					return d.render() + "\n";
+				return this.render();
+			}
+		};
+	}
+
+	/**
+	 * Produce the range and the actual value of a range test.
+	 * @param actual the actual value produced by the test
+	 * @param low the low (inclusive) value of the range
+	 * @param high the high (exclusive) value of the range
+	 * @param width the width of the labels
+	 * @return combined <code>Values</code> that show the result
+	 */
+	private Values combineRange(final Object actual, final Object low,
+			final Object high, final int width){
+		return new Values() {
+			String render() {
+				return pad("actual:", width) + Printer.produceString(actual) + "\n"
+						+ pad("low:", width) + Printer.produceString(low) + "\n"
+						+ pad("high:", width) + Printer.produceString(high) + "\n";
+			}
+		};
+	}
+
+	/**
+	 * Pad the given label with spaces to the given width.
+	 * @param label the label to pad
+	 * @param width the desired width
+	 * @return the padded label
 	 */
-	private <T> String combineTraversal(Traversal<T> actual,
-			Traversal<T> expected){
-		return
-				"actual:                                 expected:\n" +
-				Printer.combineActualExpected(Printer.produceTraversalStrings(actual),
-						Printer.produceTraversalStrings(expected))
-						+ "\n";
+	private static String pad(String label, int width){
+		StringBuilder padded = new StringBuilder(label);
+		while (padded.length() < width)
+			padded.append(' ');
+		return padded.toString();
+	}
+
+	/**
+	 * <P>The values compared by one test, shown in the test report.</P>
+	 * <P>The values are converted to a <code>String</code> only when the
+	 * result of the test is added to a report that shows them: a failed
+	 * test, or any test when the full test report is requested. The
+	 * successful tests of a run that only reports the failures never pay for
+	 * the pretty-printing of their values.</P>
+	 */
+	private static abstract class Values {
+		/**
+		 * Produce the <code>String</code> that shows the values.
+		 * @return the values as they appear in the test report
+		 */
+		abstract String render();
+
+		/**
+		 * Produce the <code>String</code> that shows the values in the
+		 * report of a failed test: by default the same as for a successful
+		 * one.
+		 * @return the values as they appear in the report of a failed test
+		 */
+		String renderFailure() {
+			return this.render();
+		}
+
+		/**
+		 * Produce the <code>Values</code> that show the given message.
+		 * @param message the message that describes the result of a test
+		 * @return the <code>Values</code> that show the message
+		 */
+		static Values of(final String message) {
+			return new Values() {
+				String render() {
+					return message;
+				}
+			};
+		}
 	}
 
 
@@ -2242,13 +3160,25 @@ public class Tester {
 	 * @return <code>true</code> if we are reporting success
 	 */
 	private boolean report(boolean success, String testname, String result) {
+		return this.report(success, testname, Values.of(result));
+	}
 
+	/**
+	 * General contractor to report test results - invokes the success or
+	 * the error reporter; invokes the stack trace generator if the test failed
+	 *
+	 * @param success Did the test succeed?
+	 * @param testname The name of this test
+	 * @param result The values compared by the test
+	 * @return <code>true</code> if we are reporting success
+	 */
+	private boolean report(boolean success, String testname, Values result) {
+		this.stopCheck();
 		if (success)
 			return this.reportSuccess(testname, result);
 		else {
-			// get the relevant stack trace for this test case
-			String trace = this.getStackTrace();
-			return this.reportErrors(testname + "\n" + trace, result);
+			// record the call site for this test case
+			return this.reportErrors(testname, CallSite.capture(), result);
 		}
 	}
 
@@ -2264,12 +3194,13 @@ public class Tester {
 	 */
 	private boolean report(boolean success, String testname, Object actual,
 			Object low, Object high) {
+		this.stopCheck();
 		if (success)
 			return this.reportSuccess(testname, actual, low, high);
 		else {
-			// get the relevant stack trace for this test case
-			String trace = this.getStackTrace();
-			return this.reportErrors(testname + "\n" + trace, actual, low, high);
+			// record the call site for this test case
+			return this.reportErrors(testname, CallSite.capture(),
+					actual, low, high);
 		}
 	}
 
@@ -2282,82 +3213,74 @@ public class Tester {
 	 * @return <code>false</code>
 	 */
 	private boolean reportErrors(String testname, String result) {
+		this.stopCheck();
 
 		// add test report to the error report and the full test report
-		return this.addError("Error in test number " + (this.numberOfTests + 1)
-				+ "\n" + testname
+		return this.addError("Error in test number ", testname, null,
+				"\n" + testname
 				+ this.insertWarning()
 				+ result + "\n");
 	}
 
 	/**
-	 * Add a range test to the list of failed tests
+	 * Add a test to the list of failed tests in the case when no actual
+	 * and expected values are to be reported, at the given call site.
 	 *
-	 * @param testname The name of the failed range test
-	 * @param actual The computed value of the test
-	 * @param low The low (inclusive) value of the range
-	 * @param high The high (exclusive) value of the range
+	 * @param testname The name of the failed test
+	 * @param site The place where the test was invoked
+	 * @param result The resulting message of the test
 	 * @return <code>false</code>
 	 */
-	private boolean reportErrors(String testname, Object actual, Object low,
-			Object high) {
+	private boolean reportErrors(String testname, CallSite site,
+			String result) {
+		this.stopCheck();
 
 		// add test report to the error report and the full test report
-		return this.addError("Error in range test number "
-				+ (this.numberOfTests + 1) + "\n" + testname + "\n"
+		return this.addError("Error in test number ", testname, site,
+				"\n" + testname
 				+ this.insertWarning()
-				+ "actual:    " + Printer.produceString(actual) + "\n"
-				+ "low:       " + Printer.produceString(low) + "\n"
-				+ "high:      "
-				+ Printer.produceString(high) + "\n");
+				+ result + "\n");
 	}
 
 	/**
-	 * Produce a formatted String that represent the relevant entries of the
-	 * <CODE>StackTrace</CODE> that provides a link to the test case that
-	 * produced the error.
+	 * Add a test to the list of failed tests, showing the stack trace that
+	 * leads to it and the values it compared.
 	 *
-	 * @return a formatted String representation of the relevant stack trace
+	 * @param testname The name of the failed test
+	 * @param site The place where the test was invoked
+	 * @param result The values compared by the test
+	 * @return <code>false</code>
 	 */
-	private String getStackTrace() {
-		try {
-			// force an exception so you can inspect the stack trace
-			throw new ErrorReport("Error trace:");
-		} catch (ErrorReport e) { // catch the exception
-			// record the original stack trace
-			StackTraceElement[] ste = e.getStackTrace();
-
-			// copy only the relevant entries
-			int length = Array.getLength(ste);
-			StackTraceElement[] tmpSTE = new StackTraceElement[length];
-			int ui = 0; // index for the stripped stack trace
-			for (int i = 3; i < length; i++) {
-				String cname = ste[i].getClassName();
-				if (!((cname.startsWith("tester."))
-						|| (cname.startsWith("sun.reflect"))
-						|| (cname.startsWith("java.lang"))
-						|| (cname.startsWith("bluej")) || (cname
-								.startsWith("__SHELL")))) {
-					tmpSTE[ui] = ste[i];
-					ui = ui + 1;
-				}
-			}
+	private boolean reportErrors(String testname, CallSite site,
+			Values result) {
+		this.stopCheck();
 
-			// we cannot have null entries at the end
-			StackTraceElement[] userSTE = new StackTraceElement[ui];
-			for (int i = 0; i < ui; i++) {
-				userSTE[i] = tmpSTE[i];
-			}
-
-			// now set the stack trace so it can be converted to a String
-			e.setStackTrace(userSTE);
+		// add test report to the error report and the full test report
+		return this.addError("Error in test number ", testname, site,
+				"\n" + testname + "\n" + site.render()
+				+ this.insertWarning()
+				+ result.renderFailure() + "\n");
+	}
 
-			StringWriter writer = new StringWriter();
-			PrintWriter printwriter = new PrintWriter(writer);
-			e.printStackTrace(printwriter);
+	/**
+	 * Add a range test to the list of failed tests
+	 *
+	 * @param testname The name of the failed range test
+	 * @param site The place where the test was invoked
+	 * @param actual The computed value of the test
+	 * @param low The low (inclusive) value of the range
+	 * @param high The high (exclusive) value of the range
+	 * @return <code>false</code>
+	 */
+	private boolean reportErrors(String testname, CallSite site,
+			Object actual, Object low, Object high) {
+		this.stopCheck();
 
-			return writer.toString();
-		}
+		// add test report to the error report and the full test report
+		return this.addError("Error in range test number ", testname, site,
+				"\n" + testname + "\n" + site.render() + "\n"
+				+ this.insertWarning()
+				+ this.combineRange(actual, low, high, 11).render());
 	}
 
 	/**
@@ -2369,12 +3292,25 @@ public class Tester {
 	 * @return <code>true</code>
 	 */
 	private boolean reportSuccess(String testname, String result) {
+		return this.reportSuccess(testname, Values.of(result));
+	}
+
+	/**
+	 * Add a test to the list of successful tests, showing the values it
+	 * compared in the full test report.
+	 *
+	 * @param testname The name of the successful test
+	 * @param result The values compared by the test
+	 * @return <code>true</code>
+	 */
+	private boolean reportSuccess(String testname, Values result) {
+		this.stopCheck();
 
 		// add test report to the full test report
-		return this.addSuccess("Success in the test number "
-				+ (this.numberOfTests + 1) + "\n" + testname + "\n"
+		return this.addSuccess("Success in the test number ", testname,
+				"\n" + testname + "\n"
 				+ this.insertWarning()
-				+ result + "\n");
+				+ this.renderSuccess(result) + "\n");
 	}
 
 	/**
@@ -2388,15 +3324,27 @@ public class Tester {
 	 */
 	private boolean reportSuccess(String testname, Object actual,
 			Object low, Object high) {
+		this.stopCheck();
 
 		// add test report to the full test report
-		return this.addSuccess("Success in the range test number "
-				+ (this.numberOfTests + 1) + "\n" + testname + "\n"
+		return this.addSuccess("Success in the range test number ", testname,
+				"\n" + testname + "\n"
 				+ this.insertWarning()
-				+ "actual:   " + Printer.produceString(actual) + "\n"
-				+ "low:      " + Printer.produceString(low) + "\n"
-				+ "high:     "
-				+ Printer.produceString(high) + "\n");
+				+ this.renderSuccess(this.combineRange(actual, low, high, 10)));
+	}
+
+	/**
+	 * Show the values compared by a successful test, unless the full test
+	 * report was not requested: then only the test name is recorded.
+	 *
+	 * @param result The values compared by the successful test
+	 * @return the values as they appear in the full test report
+	 */
+	private String renderSuccess(Values result) {
+		if (this.renderSuccesses)
+			return result.render();
+		else
+			return "";
 	}
 
 	/**
@@ -2407,10 +3355,10 @@ public class Tester {
 	 * a message when warning is issued.
 	 */
 	private String insertWarning(){
-		if (Inspector.INEXACT_COMPARED){
+		if (this.context.inexactCompared){
 			this.warnings = this.warnings + 1;
 			return "The comparison involved inexact numbers " +
-			"with relative tolerance " + Inspector.TOLERANCE + "\n";
+			"with relative tolerance " + this.context.tolerance + "\n";
 		}
 		else
 			return "";
@@ -2419,91 +3367,149 @@ public class Tester {
 	/**
 	 * Add the given test successful test result to the full report
 	 *
-	 * @param testResult The successful test result
+	 * @param header The start of the test result, followed by the test number
+	 * @param testname The name of the successful test
+	 * @param testResult The rest of the successful test result
 	 * @return <code>true</code>
 	 */
-	private boolean addSuccess(String testResult) {
-		// update the count of all tests
-		this.numberOfTests = this.numberOfTests + 1;
-		this.fullTestResults = this.fullTestResults.append("\n" + testResult);
-		return true;
+	private boolean addSuccess(String header, String testname,
+			String testResult) {
+		CallSite site = null;
+		if (this.sink.needsSourceFrames())
+			site = CallSite.capture();
+		return this.addResult(new TestResult(true, testname, header,
+				testResult, site, this.checkTime(),
+				this.context.inexactCompared));
 	}
 
 	/**
 	 * Add the given test failed test result to the full report and to the
 	 * error report
 	 *
-	 * @param testResult The failed test result
+	 * @param header The start of the test result, followed by the test number
+	 * @param testname The name of the failed test
+	 * @param site The place where the test was invoked, or <code>null</code>
+	 * @param testResult The rest of the failed test result
 	 * @return <code>false</code>
 	 */
-	private boolean addError(String testResult) {
-		// update the count of all tests
-		this.numberOfTests = this.numberOfTests + 1;
-		// update the count of the errors tests
-		this.errors = this.errors + 1;
-
-		this.failedResults = this.failedResults.append("\n" + testResult);
-		this.fullTestResults = this.fullTestResults.append("\n" + testResult);
-		return false;
+	private boolean addError(String header, String testname, CallSite site,
+			String testResult) {
+		if (site == null)
+			site = CallSite.capture();
+		return this.addResult(new TestResult(false, testname, header,
+				testResult, site, this.checkTime(),
+				this.context.inexactCompared));
 	}
 
 	/**
-	 * Produce a <code>String</code> describing the number of tests that were
-	 * run and that failed.
-	 * @return the desired <code>String</code>
+	 * Number the given test result and hand it to the receiver of the test
+	 * results -- or record it for the tester that runs this test method.
+	 *
+	 * @param result The result of one test
+	 * @return <code>true</code> if the test succeeded
 	 */
-	private String testCount() {
-		String tCount = "";
+	private boolean addResult(TestResult result) {
+		// record the result for the tester that runs this test method
+		if (this.recorder != null)
+			return this.recorder.add(result);
 
-		// report test totals
-		if (this.numberOfTests == 1) {
-			tCount = "\nRan 1 test.\n";
-		} else if (this.numberOfTests > 1) {
-			tCount = "\nRan " + this.numberOfTests + " tests.\n";
-		}
-
-		// report error totals
-		if (this.errors == 0) {
-			tCount = tCount + "All tests passed.\n";
-		}
-		if (this.errors == 1) {
-			tCount = tCount + "1 test failed.\n";
-
-		} else if (this.errors > 1) {
-			tCount = tCount + this.errors + " tests failed.\n";
+		// update the count of all tests
+		this.numberOfTests = this.numberOfTests + 1;
+		result.number = this.numberOfTests;
+		this.recordCheckTime(result);
+		if (result.isSuccess())
+			this.sink.testSucceeded(result);
+		else {
+			// update the count of the errors tests
+			this.errors = this.errors + 1;
+			this.sink.testFailed(result);
 		}
+		return result.isSuccess();
+	}
 
-		// report warnings totals
-		if (this.warnings == 0) {
-			tCount = tCount + "\n";
-		}
-		if (this.warnings == 1) {
-			tCount = tCount + "Issued 1 warning of inexact comparison.\n\n";
+	/**
+	 * Record the start of the evaluation of a test.
+	 */
+	private void startCheck() {
+		this.checkStart = System.nanoTime();
+		this.checkDuration = 0;
+	}
 
-		} else if (this.warnings > 1) {
-			tCount = tCount + "Issued " + this.warnings +
-					" warnings of inexact comparison.\n\n";
+	/**
+	 * Record the end of the evaluation of the current test, before its
+	 * result is rendered for the report: the time spent on the report is
+	 * not charged to the test. Only the first call after the start counts.
+	 */
+	private void stopCheck() {
+		if (this.checkStart != 0) {
+			this.checkDuration = System.nanoTime() - this.checkStart;
+			this.checkStart = 0;
 		}
+	}
 
-		return tCount;
+	/**
+	 * Produce the time the current test took from its start until it
+	 * stopped, and mark it as finished.
+	 *
+	 * @return the time in nanoseconds, 0 if the start was not recorded
+	 */
+	private long checkTime() {
+		this.stopCheck();
+		long duration = this.checkDuration;
+		this.checkDuration = 0;
+		return duration;
 	}
 
 	/**
 	 * Report on the number and nature of failed tests
 	 */
 	protected void testReport() {
-		System.out.print(testCount());
-		if (this.errors > 0)
-			System.out.println(this.failedResults);
-		System.out.println("--- END OF TEST RESULTS ---");
+		this.sink.testsFinished(this.numberOfTests, this.errors, this.warnings,
+				false);
+		this.timingReport();
 	}
 
 	/**
 	 * Produce test names and values compared for all tests
 	 */
 	protected void fullTestReport() {
-		System.out.println(testCount() + this.fullTestResults
-				+ "\n--- END OF FULL TEST RESULTS ---");
+		this.sink.testsFinished(this.numberOfTests, this.errors, this.warnings,
+				true);
+		this.timingReport();
+	}
+
+	/**
+	 * Set the receiver of the test results of this tester. The default is
+	 * a <code>MemorySink</code> that prints the usual test report at the
+	 * end of the run, or the one selected by the system property
+	 * <CODE>{@link #SINK_PROPERTY tester.sink}</CODE>.
+	 *
+	 * @param sink the receiver of all test results
+	 */
+	public void setResultSink(ResultSink sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * Produce the receiver of the test results of this tester.
+	 *
+	 * @return the receiver of all test results
+	 */
+	public ResultSink getResultSink() {
+		return this.sink;
+	}
+
+	/**
+	 * Produce the receiver of the test results selected by the system
+	 * property <CODE>{@link #SINK_PROPERTY tester.sink}</CODE>.
+	 *
+	 * @return a <code>ConsoleSink</code> for <code>console</code>, the
+	 *         default <code>MemorySink</code> otherwise
+	 */
+	private ResultSink sinkProperty() {
+		if ("console".equals(System.getProperty(SINK_PROPERTY)))
+			return new ConsoleSink();
+		return this.defaultSink;
 	}
 
 	/*--------------------------------------------------------------------*/
@@ -2559,7 +3565,22 @@ public class Tester {
 	 */
 	public static void runReports(boolean full, boolean printall,
 			Object... objs) {
+		runReports(new MemorySink(), full, printall, objs);
+	}
+
+	/**
+	 * A hook to run the tester for a collection of objects and send the
+	 * specified test results to the given receiver
+	 *
+	 * @param sink the receiver of the test results
+	 * @param full true if all test results should be reported
+	 * @param printall true if all data should be displayed
+	 * @param objs An array of 'Examples' class instances where tests are defined
+	 */
+	public static void runReports(ResultSink sink, boolean full,
+			boolean printall, Object... objs) {
 		Tester t = new Tester();
+		t.setResultSink(sink);
 		if(objs != null){
 			for(Object obj : objs){
 				t.runAnyTests(obj, full, printall);
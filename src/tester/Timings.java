@@ -0,0 +1,260 @@
+package tester;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The times taken by a series of tests or test methods, recorded by a
+ * <code>Tester</code> when timing is turned on: the number of times
+ * recorded, their total, their median, 99th percentile and maximum, and
+ * the slowest ones with their names.
+ * </P>
+ * <P>
+ * The times are counted in a histogram with eight buckets for every power
+ * of two nanoseconds, so the percentiles are accurate to within an eighth
+ * of their value, and recording a time allocates nothing unless it is one
+ * of the slowest so far.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public final class Timings {
+
+	/**
+	 * One of the slowest tests or test methods: its name and the time it
+	 * took.
+	 */
+	public static final class Entry {
+
+		/** the name of the test or test method */
+		private final String name;
+
+		/** the time it took, in nanoseconds */
+		private final long nanos;
+
+		/**
+		 * Constructor: record the name and the time.
+		 *
+		 * @param name the name of the test or test method
+		 * @param nanos the time it took, in nanoseconds
+		 */
+		Entry(String name, long nanos) {
+			this.name = name;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * @return the name of the test or test method
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * @return the time it took, in nanoseconds
+		 */
+		public long getNanos() {
+			return this.nanos;
+		}
+	}
+
+	/** orders the entries from the fastest to the slowest */
+	private static final Comparator<Entry> FASTEST_FIRST =
+			new Comparator<Entry>() {
+		public int compare(Entry e1, Entry e2) {
+			return Long.compare(e1.nanos, e2.nanos);
+		}
+	};
+
+	/** the number of buckets for the times below 16 nanoseconds */
+	private static final int LINEAR = 16;
+
+	/** the number of buckets for each power of two above them */
+	private static final int SUB_BUCKETS = 8;
+
+	/** the number of recorded times in each bucket */
+	private final long[] buckets = new long[LINEAR + (63 - 4) * SUB_BUCKETS];
+
+	/** the number of slowest entries kept */
+	private final int slowestCount;
+
+	/** the slowest entries so far, the fastest of them first */
+	private final PriorityQueue<Entry> slowest;
+
+	/** the number of recorded times */
+	private long count = 0;
+
+	/** the sum of the recorded times */
+	private long total = 0;
+
+	/** the largest recorded time */
+	private long max = 0;
+
+	/**
+	 * Constructor: no times recorded yet.
+	 *
+	 * @param slowestCount the number of slowest entries to keep
+	 */
+	Timings(int slowestCount) {
+		this.slowestCount = slowestCount;
+		this.slowest = new PriorityQueue<Entry>(Math.max(1, slowestCount),
+				FASTEST_FIRST);
+	}
+
+	/**
+	 * Record the time taken by the test or test method with the given name.
+	 *
+	 * @param name the name of the test or test method
+	 * @param nanos the time it took, in nanoseconds
+	 */
+	void record(String name, long nanos) {
+		nanos = Math.max(0, nanos);
+		this.buckets[bucketOf(nanos)]++;
+		this.count = this.count + 1;
+		this.total = this.total + nanos;
+		this.max = Math.max(this.max, nanos);
+
+		if (this.slowest.size() < this.slowestCount)
+			this.slowest.add(new Entry(name, nanos));
+		else if (this.slowestCount > 0 && this.slowest.peek().nanos < nanos) {
+			this.slowest.poll();
+			this.slowest.add(new Entry(name, nanos));
+		}
+	}
+
+	/**
+	 * @return the number of recorded times
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return the sum of the recorded times, in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return this.total;
+	}
+
+	/**
+	 * @return the largest recorded time, in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return this.max;
+	}
+
+	/**
+	 * Produce the time below which the given percentage of the recorded
+	 * times fall.
+	 *
+	 * @param percentile the percentage, between 0 and 100
+	 * @return the time in nanoseconds, accurate to within an eighth, or 0
+	 *         if no times were recorded
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (this.count == 0)
+			return 0;
+		long rank = (long) Math.ceil(percentile / 100.0 * this.count);
+		rank = Math.max(1, Math.min(this.count, rank));
+		long seen = 0;
+		for (int i = 0; i < this.buckets.length; i++) {
+			seen = seen + this.buckets[i];
+			if (seen >= rank)
+				return Math.min(upperBound(i), this.max);
+		}
+		return this.max;
+	}
+
+	/**
+	 * @return the slowest entries recorded, the slowest first
+	 */
+	public ArrayList<Entry> getSlowest() {
+		ArrayList<Entry> entries = new ArrayList<Entry>(this.slowest);
+		Collections.sort(entries, Collections.reverseOrder(FASTEST_FIRST));
+		return entries;
+	}
+
+	/**
+	 * Produce the report on the recorded times.
+	 *
+	 * @param kind what was timed, in plural: tests or test methods
+	 * @return the median, 99th percentile and maximum times, followed by
+	 *         the slowest entries
+	 */
+	String report(String kind) {
+		StringBuilder report = new StringBuilder();
+		report.append("Timing of " + this.count + " " + kind + ": "
+				+ "p50 " + millis(this.getPercentileNanos(50))
+				+ ", p99 " + millis(this.getPercentileNanos(99))
+				+ ", max " + millis(this.max)
+				+ ", total " + millis(this.total) + "\n");
+		ArrayList<Entry> entries = this.getSlowest();
+		if (entries.size() > 0) {
+			report.append("Slowest " + kind + ":\n");
+			for (Entry entry : entries)
+				report.append(String.format(Locale.ROOT, "%12s  %s\n",
+						millis(entry.nanos), entry.name));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Produce the report on the times of the tests and of the test methods,
+	 * as the sinks that print a report show it.
+	 *
+	 * @param tests the times of the tests
+	 * @param methods the times of the test methods
+	 * @return the report on both, with its end marker
+	 */
+	static String report(Timings tests, Timings methods) {
+		return tests.report("tests") + "\n" + methods.report("test methods")
+				+ "--- END OF TIMING ---";
+	}
+
+	/**
+	 * Produce the given time in milliseconds.
+	 *
+	 * @param nanos the time in nanoseconds
+	 * @return the time in milliseconds, with three decimal places
+	 */
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f ms", nanos / 1e6);
+	}
+
+	/**
+	 * Produce the index of the bucket that counts the given time.
+	 *
+	 * @param nanos a time in nanoseconds, not negative
+	 * @return the index of its bucket
+	 */
+	private static int bucketOf(long nanos) {
+		if (nanos < LINEAR)
+			return (int) nanos;
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+		return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Produce the largest time counted in the given bucket.
+	 *
+	 * @param bucket the index of a bucket
+	 * @return the largest time in the bucket, in nanoseconds
+	 */
+	private static long upperBound(int bucket) {
+		if (bucket < LINEAR)
+			return bucket;
+		int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+		long sub = (bucket - LINEAR) % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << (exponent - 3)) - 1;
+	}
+}
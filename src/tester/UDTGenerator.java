@@ -141,8 +141,8 @@ public class UDTGenerator<T> implements net.java.quickcheck.Generator<T>
             T genObj = (T)Utils.getDummyObject(this.type);
             // // throw-away
             // object
-            Reflector r1 = new Reflector(genObj);
-            Field[] fields = r1.getFields(genObj);
+            Field[] fields = (genObj == null) ? new Field[0]
+                : Reflector.layoutOf(genObj.getClass()).fields;
             for (Field f : fields)
             {
 
@@ -293,8 +293,8 @@ public class UDTGenerator<T> implements net.java.quickcheck.Generator<T>
             genObj = (T)Utils.getDummyObject(this.type); // (T)this.type.newInstance();
             // this.type.getFields();
 
-            Reflector r1 = new Reflector(genObj);
-            Field[] fields = r1.getFields(genObj);
+            Field[] fields = (genObj == null) ? new Field[0]
+                : Reflector.layoutOf(genObj.getClass()).fields;
             for (Field f : fields)
             {
                 f.set(genObj, fieldGenerators.get(f).next());
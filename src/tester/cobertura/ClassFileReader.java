@@ -0,0 +1,371 @@
+package tester.cobertura;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * Reads the annotations of a class and of its methods from its class file,
+ * without loading the class and without building a model of it: only the
+ * positions of the entries of the constant pool are recorded, and only the
+ * <code>RuntimeVisibleAnnotations</code> attributes are looked at. A class
+ * with no annotations is read without allocating anything.
+ * </P>
+ * <P>
+ * The class file is read into a buffer that is reused for the next class,
+ * or mapped into memory if it is large. A reader is used by one thread at
+ * a time.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class ClassFileReader {
+
+	/** the size from which a class file is mapped rather than read */
+	private static final int MAP_THRESHOLD = 1 << 16;
+
+	/** the name of the attribute that holds the visible annotations */
+	private static final byte[] ANNOTATIONS =
+			"RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+	/** the positions of the entries of the constant pool */
+	private int[] offsets = new int[512];
+
+	/** the buffer for the class files that are read */
+	private byte[] bytes = new byte[1 << 14];
+
+	/** the class file being read */
+	private ByteBuffer buffer;
+
+	/** the annotations of the class being read */
+	private final ArrayList<String> annotations = new ArrayList<String>();
+
+	/** the annotations of the methods of the class being read */
+	private final ArrayList<String> methodAnnotations =
+			new ArrayList<String>();
+
+	/**
+	 * Read the annotations of the class in the given class file.
+	 *
+	 * @param file a class file
+	 * @return the name and the annotations of the class, or
+	 *         <code>null</code> if neither the class nor its methods have
+	 *         annotations
+	 * @throws IOException if the file cannot be read or is not a class file
+	 */
+	ClassHeader read(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size >= MAP_THRESHOLD)
+				return this.parse(channel.map(FileChannel.MapMode.READ_ONLY,
+						0, size));
+
+			ByteBuffer contents = ByteBuffer.wrap(this.reserve((int) size),
+					0, (int) size);
+			while (contents.hasRemaining())
+				if (channel.read(contents) < 0)
+					throw new IOException("truncated class file");
+			((Buffer) contents).flip();
+			return this.parse(contents);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Read the annotations of the class in the given class file.
+	 *
+	 * @param in the contents of a class file, for example an entry of an
+	 *          archive
+	 * @param size the size of the class file, or -1 if not known
+	 * @return the name and the annotations of the class, or
+	 *         <code>null</code> if neither the class nor its methods have
+	 *         annotations
+	 * @throws IOException if the class file cannot be read or is not a
+	 *           class file
+	 */
+	ClassHeader read(InputStream in, long size) throws IOException {
+		int length = 0;
+		this.reserve((int) Math.max(0, size));
+		while (true) {
+			if (length == this.bytes.length)
+				this.reserve(2 * length);
+			int count = in.read(this.bytes, length, this.bytes.length - length);
+			if (count < 0)
+				break;
+			length = length + count;
+		}
+		return this.parse(ByteBuffer.wrap(this.bytes, 0, length));
+	}
+
+	/**
+	 * Make sure the buffer holds at least the given number of bytes,
+	 * keeping its contents.
+	 *
+	 * @param size the number of bytes needed
+	 * @return the buffer
+	 */
+	private byte[] reserve(int size) {
+		if (size > this.bytes.length) {
+			byte[] larger = new byte[Math.max(size, 2 * this.bytes.length)];
+			System.arraycopy(this.bytes, 0, larger, 0, this.bytes.length);
+			this.bytes = larger;
+		}
+		return this.bytes;
+	}
+
+	/**
+	 * Read the annotations of the class in the given class file.
+	 *
+	 * @param contents the class file
+	 * @return the name and the annotations of the class, or
+	 *         <code>null</code> if it has none
+	 * @throws IOException if the contents are not a class file
+	 */
+	private ClassHeader parse(ByteBuffer contents) throws IOException {
+		this.buffer = contents;
+		try {
+			return this.parseClass();
+		} catch (RuntimeException e) { // a position out of the class file
+			throw new IOException("malformed class file", e);
+		} finally {
+			this.buffer = null;
+		}
+	}
+
+	/**
+	 * Read the annotations of the class in the current class file.
+	 *
+	 * @return the name and the annotations of the class, or
+	 *         <code>null</code> if it has none
+	 * @throws IOException if the contents are not a class file
+	 */
+	private ClassHeader parseClass() throws IOException {
+		if (this.buffer.getInt(0) != 0xCAFEBABE)
+			throw new IOException("not a class file");
+
+		// record where every entry of the constant pool starts
+		int count = this.u2(8);
+		if (count > this.offsets.length)
+			this.offsets = new int[Math.max(count, 2 * this.offsets.length)];
+		int pos = 10;
+		for (int i = 1; i < count; i++) {
+			this.offsets[i] = pos;
+			int tag = this.buffer.get(pos) & 0xFF;
+			switch (tag) {
+			case 1: // Utf8
+				pos = pos + 3 + this.u2(pos + 1);
+				break;
+			case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+				pos = pos + 3;
+				break;
+			case 15: // MethodHandle
+				pos = pos + 4;
+				break;
+			case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+				pos = pos + 5;
+				break;
+			case 5: case 6: // Long, Double take two entries
+				pos = pos + 9;
+				i++;
+				break;
+			default:
+				throw new IOException("unknown constant pool tag " + tag);
+			}
+		}
+
+		int thisClass = this.u2(pos + 2);
+		pos = pos + 6; // access flags, this class, super class
+		pos = pos + 2 + 2 * this.u2(pos); // interfaces
+
+		// the fields are skipped, the methods and the class are looked at
+		this.annotations.clear();
+		this.methodAnnotations.clear();
+		pos = this.members(pos, null);
+		pos = this.members(pos, this.methodAnnotations);
+		this.attributes(pos, this.annotations);
+
+		if (this.annotations.isEmpty() && this.methodAnnotations.isEmpty())
+			return null;
+		ClassHeader header = new ClassHeader(
+				this.utf8(this.u2(this.offsets[thisClass] + 1)).replace('/', '.'));
+		header.annotations.addAll(this.annotations);
+		header.methodAnnotations.addAll(this.methodAnnotations);
+		return header;
+	}
+
+	/**
+	 * Read the fields or the methods of the class.
+	 *
+	 * @param pos the position of the count of the members
+	 * @param found where the names of their annotations are added, or
+	 *          <code>null</code> if they are skipped
+	 * @return the position after the members
+	 */
+	private int members(int pos, ArrayList<String> found) {
+		int members = this.u2(pos);
+		pos = pos + 2;
+		for (int i = 0; i < members; i++)
+			pos = this.attributes(pos + 6, found); // flags, name, descriptor
+		return pos;
+	}
+
+	/**
+	 * Read the attributes of a member or of the class.
+	 *
+	 * @param pos the position of the count of the attributes
+	 * @param found where the names of the annotations are added, or
+	 *          <code>null</code> if they are skipped
+	 * @return the position after the attributes
+	 */
+	private int attributes(int pos, ArrayList<String> found) {
+		int attributes = this.u2(pos);
+		pos = pos + 2;
+		for (int i = 0; i < attributes; i++) {
+			int length = this.buffer.getInt(pos + 2);
+			if (found != null && this.utf8Equals(this.u2(pos), ANNOTATIONS))
+				this.annotations(pos + 6, found);
+			pos = pos + 6 + length;
+		}
+		return pos;
+	}
+
+	/**
+	 * Read the names of the annotations in a
+	 * <code>RuntimeVisibleAnnotations</code> attribute.
+	 *
+	 * @param pos the position of the count of the annotations
+	 * @param found where the names of the annotations are added
+	 */
+	private void annotations(int pos, ArrayList<String> found) {
+		int annotations = this.u2(pos);
+		pos = pos + 2;
+		for (int i = 0; i < annotations; i++) {
+			// 'Ltester/Example;' names the annotation tester.Example
+			String descriptor = this.utf8(this.u2(pos));
+			String name = descriptor.substring(1, descriptor.length() - 1)
+					.replace('/', '.');
+			if (!found.contains(name))
+				found.add(name);
+			pos = this.skipAnnotation(pos);
+		}
+	}
+
+	/**
+	 * Skip one annotation and its values.
+	 *
+	 * @param pos the position of the annotation
+	 * @return the position after the annotation
+	 */
+	private int skipAnnotation(int pos) {
+		int pairs = this.u2(pos + 2);
+		pos = pos + 4;
+		for (int i = 0; i < pairs; i++)
+			pos = this.skipValue(pos + 2); // the name of the element
+		return pos;
+	}
+
+	/**
+	 * Skip the value of an element of an annotation.
+	 *
+	 * @param pos the position of the value
+	 * @return the position after the value
+	 */
+	private int skipValue(int pos) {
+		int tag = this.buffer.get(pos);
+		pos = pos + 1;
+		switch (tag) {
+		case 'e': // enum constant: type and name
+			return pos + 4;
+		case '@': // nested annotation
+			return this.skipAnnotation(pos);
+		case '[': // array of values
+			int values = this.u2(pos);
+			pos = pos + 2;
+			for (int i = 0; i < values; i++)
+				pos = this.skipValue(pos);
+			return pos;
+		default: // constant or class
+			return pos + 2;
+		}
+	}
+
+	/**
+	 * Is the given entry of the constant pool the given string?
+	 *
+	 * @param index the index of a Utf8 entry
+	 * @param expected the string in modified UTF-8, without its length
+	 * @return <code>true</code> if the entry holds the string
+	 */
+	private boolean utf8Equals(int index, byte[] expected) {
+		int offset = this.offsets[index];
+		if (this.u2(offset + 1) != expected.length)
+			return false;
+		for (int i = 0; i < expected.length; i++)
+			if (this.buffer.get(offset + 3 + i) != expected[i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Produce the string in the given entry of the constant pool.
+	 *
+	 * @param index the index of a Utf8 entry
+	 * @return its string
+	 */
+	private String utf8(int index) {
+		int offset = this.offsets[index];
+		int length = this.u2(offset + 1);
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			int b = this.buffer.get(offset + 3 + i);
+			if (b < 0)
+				return this.decodeUtf8(offset, length);
+			chars[i] = (char) b;
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Decode a string in modified UTF-8 that is not all ASCII.
+	 *
+	 * @param offset the position of the Utf8 entry
+	 * @param length the number of bytes of the string
+	 * @return the string
+	 */
+	private String decodeUtf8(int offset, int length) {
+		byte[] entry = new byte[length + 2];
+		for (int i = 0; i < entry.length; i++)
+			entry[i] = this.buffer.get(offset + 1 + i);
+		try {
+			return new DataInputStream(new ByteArrayInputStream(entry))
+					.readUTF();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("malformed string", e);
+		}
+	}
+
+	/**
+	 * @param pos a position in the class file
+	 * @return the unsigned 16-bit number at that position
+	 */
+	private int u2(int pos) {
+		return this.buffer.getShort(pos) & 0xFFFF;
+	}
+}
@@ -0,0 +1,50 @@
+package tester.cobertura;
+
+import java.util.ArrayList;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The name of a class and the names of the annotations of the class and of
+ * its methods, as read from its class file by a
+ * <CODE>{@link ClassFileReader ClassFileReader}</CODE> without loading the
+ * class.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class ClassHeader {
+
+	/** the name of the class, with dots between its packages */
+	final String className;
+
+	/** the names of the annotations of the class */
+	final ArrayList<String> annotations = new ArrayList<String>();
+
+	/** the names of the annotations of the methods of the class */
+	final ArrayList<String> methodAnnotations = new ArrayList<String>();
+
+	/**
+	 * Constructor: a class with no annotations found yet.
+	 *
+	 * @param className the name of the class
+	 */
+	ClassHeader(String className) {
+		this.className = className;
+	}
+
+	/**
+	 * Does the class or one of its methods have the given annotation?
+	 *
+	 * @param annotation the full name of an annotation
+	 * @return <code>true</code> if the class or a method is annotated with it
+	 */
+	boolean isAnnotatedWith(String annotation) {
+		return this.annotations.contains(annotation)
+				|| this.methodAnnotations.contains(annotation);
+	}
+}
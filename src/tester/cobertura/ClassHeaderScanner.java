@@ -0,0 +1,297 @@
+package tester.cobertura;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * Finds the classes on <code>java.class.path</code> that have an annotation
+ * with the given name or class, or that have a method with it, as the
+ * <CODE>{@link AnnotationScanner AnnotationScanner}</CODE> does, but
+ * without building a model of every class: only the constant pool and the
+ * annotations of each class file are read, by a
+ * <CODE>{@link ClassFileReader ClassFileReader}</CODE>.
+ * </P>
+ * <P>
+ * The directories and archives of the JDK, of the libraries used by the
+ * tester, and the archive of the tester itself are not scanned. The other
+ * entries of the classpath are scanned at the same time on several
+ * threads. The annotated classes found in every class file and archive are
+ * kept in an index between runs, so a file is read again only when its
+ * time of modification or its size changed. The index is kept in the file
+ * named by the system property <code>tester.scanIndex</code>, by default
+ * in the directory for temporary files; the value <code>none</code> turns
+ * the index off.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+public class ClassHeaderScanner {
+
+	/** the name of the system property that gives the index file */
+	public static final String INDEX_PROPERTY = "tester.scanIndex";
+
+	/** the prefixes of the names of the archives of known libraries */
+	private static final String[] LIBRARIES = { "scannotation", "javassist",
+			"quickcheck", "junit", "hamcrest" };
+
+	/** the name of the annotation to look for */
+	private final String name;
+
+	/**
+	 * Scan for the annotation with the given name.
+	 *
+	 * @param name the full name of the annotation
+	 */
+	public ClassHeaderScanner(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Scan for the given annotation.
+	 *
+	 * @param c the class of the annotation
+	 */
+	public ClassHeaderScanner(Class<? extends Annotation> c) {
+		this(c.getName());
+	}
+
+	/**
+	 * Find the classes on <code>java.class.path</code> that have the
+	 * annotation, or that have a method with it.
+	 *
+	 * @return the names of the annotated classes, in alphabetical order, or
+	 *         <code>null</code> if there are none
+	 * @throws Exception if the scan is interrupted
+	 */
+	public Set<String> scan() throws Exception {
+		String classpath = System.getProperty("java.class.path", "");
+		return this.scan(classpath.split(File.pathSeparator));
+	}
+
+	/**
+	 * Find the classes in the given directories and archives that have the
+	 * annotation, or that have a method with it.
+	 *
+	 * @param entries the entries of a classpath
+	 * @return the names of the annotated classes, in alphabetical order, or
+	 *         <code>null</code> if there are none
+	 * @throws InterruptedException if the scan is interrupted
+	 */
+	Set<String> scan(String[] entries) throws InterruptedException {
+		final ScanIndex index = ScanIndex.load(indexFile());
+
+		// scan every entry of the classpath on its own thread
+		ArrayList<File> files = new ArrayList<File>();
+		for (String entry : entries)
+			if (entry.length() > 0 && !skipped(new File(entry)))
+				files.add(new File(entry));
+		if (files.isEmpty())
+			return null;
+		ExecutorService pool = Executors.newFixedThreadPool(
+				Math.min(files.size(),
+						Runtime.getRuntime().availableProcessors()),
+				new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "tester scan");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		ArrayList<Future<ArrayList<ClassHeader>>> scans =
+				new ArrayList<Future<ArrayList<ClassHeader>>>();
+		for (final File file : files)
+			scans.add(pool.submit(new Callable<ArrayList<ClassHeader>>() {
+				public ArrayList<ClassHeader> call() throws IOException {
+					ArrayList<ClassHeader> found = new ArrayList<ClassHeader>();
+					ClassFileReader reader = new ClassFileReader();
+					if (file.isDirectory())
+						scanDirectory(file, reader, index, found);
+					else if (file.isFile())
+						scanArchive(file, reader, index, found);
+					return found;
+				}
+			}));
+		pool.shutdown();
+
+		Set<String> classes = new TreeSet<String>();
+		for (Future<ArrayList<ClassHeader>> scan : scans) {
+			try {
+				for (ClassHeader header : scan.get())
+					if (header.isAnnotatedWith(this.name))
+						classes.add(header.className);
+			} catch (ExecutionException e) {
+				// an entry that cannot be read has no tests
+			}
+		}
+		index.save();
+
+		if (classes.isEmpty())
+			return null;
+		return classes;
+	}
+
+	/**
+	 * Find the annotated classes in the class files in the given directory
+	 * and its subdirectories.
+	 *
+	 * @param dir the directory to scan
+	 * @param reader the reader of the class files
+	 * @param index the classes found by earlier scans
+	 * @param found where the annotated classes are added
+	 */
+	private static void scanDirectory(File dir, ClassFileReader reader,
+			ScanIndex index, ArrayList<ClassHeader> found) {
+		File[] files = dir.listFiles();
+		if (files == null)
+			return;
+		for (File file : files) {
+			if (file.isDirectory()) {
+				scanDirectory(file, reader, index, found);
+				continue;
+			}
+			if (!file.getName().endsWith(".class"))
+				continue;
+
+			ScanIndex.Record record = index.lookup(file);
+			if (record == null) {
+				record = new ScanIndex.Record(file.lastModified(),
+						file.length());
+				try {
+					addAnnotated(reader.read(file), record);
+				} catch (IOException e) {
+					// a class file that cannot be read has no annotations
+				}
+				index.put(file, record);
+			}
+			found.addAll(record.classes);
+		}
+	}
+
+	/**
+	 * Find the annotated classes in the given archive.
+	 *
+	 * @param archive the archive to scan
+	 * @param reader the reader of the class files
+	 * @param index the classes found by earlier scans
+	 * @param found where the annotated classes are added
+	 * @throws IOException if the archive cannot be read
+	 */
+	private static void scanArchive(File archive, ClassFileReader reader,
+			ScanIndex index, ArrayList<ClassHeader> found) throws IOException {
+		ScanIndex.Record record = index.lookup(archive);
+		if (record == null) {
+			record = new ScanIndex.Record(archive.lastModified(),
+					archive.length());
+			ZipFile zip = new ZipFile(archive);
+			try {
+				Enumeration<? extends ZipEntry> entries = zip.entries();
+				while (entries.hasMoreElements()) {
+					ZipEntry entry = entries.nextElement();
+					String entryName = entry.getName();
+					if (!entryName.endsWith(".class")
+							|| entryName.startsWith("META-INF/"))
+						continue;
+					InputStream in = zip.getInputStream(entry);
+					try {
+						addAnnotated(reader.read(in, entry.getSize()), record);
+					} catch (IOException e) {
+						// a class file that cannot be read has no annotations
+					} finally {
+						in.close();
+					}
+				}
+			} finally {
+				zip.close();
+			}
+			index.put(archive, record);
+		}
+		found.addAll(record.classes);
+	}
+
+	/**
+	 * Add the given class to the record of its file if it has annotations.
+	 *
+	 * @param header the class read from the file, or <code>null</code> if
+	 *          it has no annotations
+	 * @param record the record of the file
+	 */
+	private static void addAnnotated(ClassHeader header,
+			ScanIndex.Record record) {
+		if (header != null)
+			record.classes.add(header);
+	}
+
+	/**
+	 * Is the given entry of the classpath left out of the scan? The JDK,
+	 * the known libraries and the tester itself have no tests.
+	 *
+	 * @param entry an entry of the classpath
+	 * @return <code>true</code> if the entry is not scanned
+	 */
+	private static boolean skipped(File entry) {
+		String path = entry.getAbsolutePath();
+		File javaHome = new File(System.getProperty("java.home"))
+				.getAbsoluteFile();
+		if (javaHome.getName().equals("jre")) // the JDK of Java 8
+			javaHome = javaHome.getParentFile();
+		if (path.startsWith(javaHome.getPath() + File.separator))
+			return true;
+
+		if (entry.isDirectory())
+			return false;
+		String fileName = entry.getName().toLowerCase(Locale.ROOT);
+		for (String library : LIBRARIES)
+			if (fileName.startsWith(library))
+				return true;
+
+		CodeSource tester = ClassHeaderScanner.class.getProtectionDomain()
+				.getCodeSource();
+		try {
+			return tester != null && tester.getLocation() != null
+					&& path.equals(new File(tester.getLocation().toURI())
+							.getAbsolutePath());
+		} catch (URISyntaxException e) {
+			return false;
+		} catch (IllegalArgumentException e) { // not a file
+			return false;
+		}
+	}
+
+	/**
+	 * @return the file where the index is kept, or <code>null</code> if
+	 *         the index is turned off
+	 */
+	private static File indexFile() {
+		String file = System.getProperty(INDEX_PROPERTY);
+		if ("none".equals(file))
+			return null;
+		if (file != null)
+			return new File(file);
+		return new File(System.getProperty("java.io.tmpdir"),
+				"tester-scan-index-" + System.getProperty("user.name")
+				+ ".txt");
+	}
+}
@@ -0,0 +1,220 @@
+package tester.cobertura;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This program is distributed under the terms of the
+ * GNU Lesser General Public License (LGPL)
+ */
+
+/**
+ * <P>
+ * The annotated classes found in the class files and archives scanned by
+ * earlier runs, kept in a file between runs. A class file or archive is
+ * scanned again only if its time of modification or its size changed.
+ * </P>
+ * <P>
+ * The index is only a cache: a file that cannot be read is treated as an
+ * empty index, and an index that cannot be written is not kept. Several
+ * JVMs may share the file; the last one to finish its scan replaces it.
+ * </P>
+ *
+ * @since 18 October 2026
+ */
+final class ScanIndex {
+
+	/** the first line of an index file, with the version of its format */
+	private static final String HEADER = "tester scan index 2";
+
+	/**
+	 * The annotated classes found in one class file or archive, with the
+	 * time of modification and the size of the file when it was scanned.
+	 */
+	static final class Record {
+
+		/** the time of modification of the file */
+		final long modified;
+
+		/** the size of the file */
+		final long size;
+
+		/** the classes in the file that have annotations */
+		final ArrayList<ClassHeader> classes = new ArrayList<ClassHeader>();
+
+		/**
+		 * Constructor: no annotated classes found yet.
+		 *
+		 * @param modified the time of modification of the file
+		 * @param size the size of the file
+		 */
+		Record(long modified, long size) {
+			this.modified = modified;
+			this.size = size;
+		}
+	}
+
+	/** the file where the index is kept, <code>null</code> if not kept */
+	private final File file;
+
+	/** the records of the index, by the absolute path of the scanned file */
+	private final Map<String, Record> records =
+			new ConcurrentHashMap<String, Record>();
+
+	/** <code>true</code> if some record was added since it was read */
+	private volatile boolean changed = false;
+
+	/**
+	 * Constructor: an empty index kept in the given file.
+	 *
+	 * @param file the file where the index is kept, or <code>null</code>
+	 */
+	private ScanIndex(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Read the index kept in the given file.
+	 *
+	 * @param file the file where the index is kept, or <code>null</code> if
+	 *          the index is not kept between runs
+	 * @return the index, empty if the file does not exist or cannot be read
+	 */
+	static ScanIndex load(File file) {
+		ScanIndex index = new ScanIndex(file);
+		if (file == null || !file.isFile())
+			return index;
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(
+					new FileInputStream(file), StandardCharsets.UTF_8));
+			try {
+				if (!HEADER.equals(reader.readLine()))
+					return index;
+				Record record = null;
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.startsWith("F ")) {
+						// F <modified> <size> <path>
+						String[] words = line.split(" ", 4);
+						record = new Record(Long.parseLong(words[1]),
+								Long.parseLong(words[2]));
+						index.records.put(words[3], record);
+					} else if (line.startsWith("C ") && record != null) {
+						// C <class> <annotation>...
+						String[] words = line.split(" ");
+						ClassHeader header = new ClassHeader(words[1]);
+						for (int i = 2; i < words.length; i++)
+							header.annotations.add(words[i]);
+						record.classes.add(header);
+					} else if (line.startsWith("M ") && record != null
+							&& !record.classes.isEmpty()) {
+						// M <annotation of a method>...
+						String[] words = line.split(" ");
+						ClassHeader header =
+								record.classes.get(record.classes.size() - 1);
+						for (int i = 1; i < words.length; i++)
+							header.methodAnnotations.add(words[i]);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			index.records.clear();
+		} catch (RuntimeException e) { // a damaged index is ignored
+			index.records.clear();
+		}
+		return index;
+	}
+
+	/**
+	 * Produce the record for the given file, if the file did not change
+	 * since it was recorded.
+	 *
+	 * @param scanned a class file or archive
+	 * @return its record, or <code>null</code> if it must be scanned
+	 */
+	Record lookup(File scanned) {
+		Record record = this.records.get(scanned.getAbsolutePath());
+		if (record == null || record.modified != scanned.lastModified()
+				|| record.size != scanned.length())
+			return null;
+		return record;
+	}
+
+	/**
+	 * Record the annotated classes found in the given file.
+	 *
+	 * @param scanned a class file or archive
+	 * @param record the classes found in it
+	 */
+	void put(File scanned, Record record) {
+		this.records.put(scanned.getAbsolutePath(), record);
+		this.changed = true;
+	}
+
+	/**
+	 * Write the index to its file, if it changed: the records of the files
+	 * that no longer exist are dropped.
+	 */
+	void save() {
+		if (this.file == null || !this.changed)
+			return;
+		File temp = new File(this.file.getPath() + "." + Thread.currentThread()
+				.getId() + "." + System.nanoTime());
+		try {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+					new FileOutputStream(temp), StandardCharsets.UTF_8));
+			try {
+				writer.print(HEADER + "\n");
+				for (Map.Entry<String, Record> entry : this.records.entrySet()) {
+					if (!new File(entry.getKey()).exists())
+						continue;
+					Record record = entry.getValue();
+					writer.print("F " + record.modified + " " + record.size
+							+ " " + entry.getKey() + "\n");
+					for (ClassHeader header : record.classes) {
+						writer.print("C " + header.className);
+						for (String annotation : header.annotations)
+							writer.print(" " + annotation);
+						writer.print("\n");
+						if (header.methodAnnotations.isEmpty())
+							continue;
+						writer.print("M");
+						for (String annotation : header.methodAnnotations)
+							writer.print(" " + annotation);
+						writer.print("\n");
+					}
+				}
+				if (writer.checkError())
+					throw new IOException("cannot write " + temp);
+			} finally {
+				writer.close();
+			}
+			try {
+				Files.move(temp.toPath(), this.file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), this.file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			this.changed = false;
+		} catch (IOException e) {
+			temp.delete(); // the index is not kept this time
+		}
+	}
+}
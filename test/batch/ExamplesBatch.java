@@ -0,0 +1,70 @@
+package batch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import tester.Batch;
+
+/**
+ * <P>Class to show how the tests of several <CODE>Examples</CODE> classes
+ * run in one JVM: a manifest lists the classes, each with its classpath,
+ * and the report of every class is written to its own file.</P>
+ * <P>The manifest also names a class that does not exist, to show how a
+ * class that cannot be run is reported.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesBatch {
+
+	/**
+	 * <P>Run the tests of several <CODE>Examples</CODE> classes found on the
+	 * classpath of this class, two at a time.</P>
+	 */
+	public static void main(String[] argv) throws Exception
+	{
+		File dir = File.createTempFile("batch", "");
+		dir.delete();
+		dir.mkdir();
+		File reports = new File(dir, "reports");
+
+		// the classes of the examples are found where this class is found
+		String classpath = new File(ExamplesBatch.class.getProtectionDomain()
+				.getCodeSource().getLocation().toURI()).getPath();
+		File manifest = new File(dir, "manifest.txt");
+		PrintWriter writer = new PrintWriter(new FileWriter(manifest));
+		writer.println("# classpath, then the Examples classes found on it");
+		writer.println(classpath + " methods.ExamplesMethods sets.ExamplesSets");
+		writer.println(classpath + " isolation.ExamplesIsolation");
+		writer.println(classpath + " batch.ExamplesMissing");
+		writer.close();
+
+		Batch.run(manifest, reports, 2);
+
+		System.out.println("\nThe report of the class methods.ExamplesMethods:");
+		printFile(new File(reports, "1-methods.ExamplesMethods.txt"));
+
+		for (File file : reports.listFiles())
+			file.delete();
+		reports.delete();
+		manifest.delete();
+		dir.delete();
+	}
+
+	/**
+	 * Print the contents of the given file.
+	 * 
+	 * @param file the file to print
+	 */
+	static void printFile(File file) throws IOException {
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		String line;
+		while ((line = reader.readLine()) != null)
+			System.out.println(line);
+		reader.close();
+	}
+}
@@ -0,0 +1,61 @@
+package daemon;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringReader;
+
+import tester.Daemon;
+import tester.Tester;
+
+/**
+ * <P>Class to show the requests served by the tester daemon and the
+ * results it sends back: one line of JSON for every test, then one for
+ * the whole <CODE>Examples</CODE> class.</P>
+ * <P>The requests name this class, whose tests are below, and a class
+ * that does not exist. The times the tests took are left out of the
+ * printed results, as they differ from run to run.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesDaemon {
+
+	String word = "daemon";
+
+	/**
+	 * <P>Tests run by the daemon on request.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testWord(Tester t) {
+		t.checkExpect(this.word.length(), 6, "Success: six letters");
+		t.checkExpect(this.word.toUpperCase(), "Daemon",
+				"Should fail: not capitalized");
+	}
+
+	/**
+	 * <P>Serve two requests and print the results sent back.</P>
+	 */
+	public static void main(String[] argv) throws Exception
+	{
+		// the classes of the examples are found where this class is found
+		String classpath = new File(ExamplesDaemon.class.getProtectionDomain()
+				.getCodeSource().getLocation().toURI()).getPath();
+		String requests = classpath + " daemon.ExamplesDaemon\n"
+				+ classpath + " daemon.ExamplesMissing\n"
+				+ "quit\n";
+
+		ByteArrayOutputStream results = new ByteArrayOutputStream();
+		Daemon.serve(new ByteArrayInputStream(requests.getBytes("UTF-8")),
+				results);
+
+		BufferedReader reader = new BufferedReader(new StringReader(
+				results.toString("UTF-8")));
+		String line;
+		while ((line = reader.readLine()) != null)
+			System.out.println(line.replaceAll("\"durationNanos\":\\d+,", "")
+					+ "\n");
+	}
+}
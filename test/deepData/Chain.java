@@ -0,0 +1,41 @@
+package deepData;
+
+/**
+ * A link in a long chain of numbered links: the chain is long enough
+ * that a comparison that recurs once per link would overflow the stack.
+ *
+ */
+class Chain {
+	/**
+	 * the number of this link
+	 */
+	int num;
+	/**
+	 * the rest of the chain, or <CODE>null</CODE> at its end
+	 */
+	Chain rest;
+
+	/**
+	 * Construct the instance of <CODE>{@link Chain Chain}</CODE> class.
+	 *
+	 * @param num the number of this link
+	 * @param rest the rest of the chain
+	 */
+	Chain(int num, Chain rest) {
+		this.num = num;
+		this.rest = rest;
+	}
+
+	/**
+	 * Build a chain of the given length, numbered from 0.
+	 *
+	 * @param length the number of links in the chain
+	 * @return the first link of the chain
+	 */
+	static Chain ofLength(int length) {
+		Chain chain = null;
+		for (int i = length - 1; i >= 0; i--)
+			chain = new Chain(i, chain);
+		return chain;
+	}
+}
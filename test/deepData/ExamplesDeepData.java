@@ -0,0 +1,97 @@
+package deepData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import tester.Tester;
+
+/**
+ * <P>Class to test the comparison of very long and very deeply nested
+ * data: long <CODE>ArrayList</CODE>s, long chains of objects and deeply
+ * nested arrays and maps are compared without running out of stack.</P>
+ * <P>The data is too large to be displayed, so it is built inside the
+ * test method and the tests only check the result of the comparison.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesDeepData {
+
+	/** the number of elements in the long datasets */
+	static final int LENGTH = 100000;
+
+	/**
+	 * <P>Tests to compare long and deeply nested data. The data is built
+	 * here rather than in fields, so that printing the examples does not
+	 * walk through it.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testDeepData(Tester t) {
+
+		// two long chains of the same links, and one that differs at the end
+		Chain chain1 = Chain.ofLength(LENGTH);
+		Chain chain2 = Chain.ofLength(LENGTH);
+		Chain chain3 = Chain.ofLength(LENGTH - 1);
+
+		// two long lists of the same numbers, and one that differs at the end
+		ArrayList<Integer> list1 = new ArrayList<Integer>();
+		ArrayList<Integer> list2 = new ArrayList<Integer>();
+		ArrayList<Integer> list3 = new ArrayList<Integer>();
+
+		// deeply nested arrays and maps
+		Object[] nested1 = new Object[] { "end" };
+		Object[] nested2 = new Object[] { "end" };
+		HashMap<String, Object> map1 = new HashMap<String, Object>();
+		HashMap<String, Object> map2 = new HashMap<String, Object>();
+
+		for (int i = 0; i < LENGTH; i++) {
+			list1.add(i);
+			list2.add(i);
+			list3.add(i);
+			nested1 = new Object[] { nested1, i };
+			nested2 = new Object[] { nested2, i };
+		}
+		list3.set(LENGTH - 1, -1);
+
+		HashMap<String, Object> inner1 = map1;
+		HashMap<String, Object> inner2 = map2;
+		for (int i = 0; i < LENGTH; i++) {
+			HashMap<String, Object> next1 = new HashMap<String, Object>();
+			HashMap<String, Object> next2 = new HashMap<String, Object>();
+			inner1.put("next", next1);
+			inner2.put("next", next2);
+			inner1 = next1;
+			inner2 = next2;
+		}
+
+		t.checkExpect(t.same(chain1, chain2), true,
+				"Success: same long chains");
+		t.checkExpect(t.same(chain1, chain3), false,
+				"Success: one chain is shorter");
+
+		t.checkExpect(t.same(list1, list2), true,
+				"Success: same long lists");
+		t.checkExpect(t.same(list1, list3), false,
+				"Success: long lists that differ at the end");
+
+		t.checkExpect(t.same(nested1, nested2), true,
+				"Success: same deeply nested arrays");
+		t.checkExpect(t.same(map1, map2), true,
+				"Success: same deeply nested maps");
+	}
+
+	/**
+	 * <P>Run all tests defined in the <CODE>{@link ExamplesDeepData ExamplesDeepData}</CODE> 
+	 * class.</P>
+	 */
+	public static void main(String[] argv)
+	{
+		ExamplesDeepData ed = new ExamplesDeepData();
+
+		System.out.println("Invoke tester.runReport(this, false, false):");
+		System.out.println("Print no data, all test results");
+
+		Tester.runReport(ed, false, false);
+	}
+}
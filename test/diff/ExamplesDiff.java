@@ -0,0 +1,162 @@
+package diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import tester.Tester;
+
+/** An author of a book */
+class Author {
+	String name;
+	int born;
+
+	Author(String name, int born) {
+		this.name = name;
+		this.born = born;
+	}
+}
+
+/** A book with its author */
+class Book {
+	String title;
+	Author author;
+
+	Book(String title, Author author) {
+		this.title = title;
+		this.author = author;
+	}
+}
+
+/** A library with a list of books and the shelves where they are */
+class Library {
+	ArrayList<Book> books;
+	HashMap<String, Integer> shelves = new HashMap<String, Integer>();
+
+	Library(Book... books) {
+		this.books = new ArrayList<Book>(Arrays.asList(books));
+		for (int i = 0; i < books.length; i++)
+			this.shelves.put(books[i].title, i + 1);
+	}
+}
+
+/** A city with its location */
+class City {
+	String name;
+	double latitude;
+	double longitude;
+
+	City(String name, double latitude, double longitude) {
+		this.name = name;
+		this.latitude = latitude;
+		this.longitude = longitude;
+	}
+}
+
+/** A list of numbers */
+interface ILoInt {
+}
+
+/** An empty list of numbers */
+class MtLoInt implements ILoInt {
+}
+
+/** A nonempty list of numbers */
+class ConsLoInt implements ILoInt {
+	int first;
+	ILoInt rest;
+
+	ConsLoInt(int first, ILoInt rest) {
+		this.first = first;
+		this.rest = rest;
+	}
+}
+
+/**
+ * <P>Class to show the reports of the first difference, turned on by the
+ * system property <CODE>tester.diff</CODE>: a failed test shows the path
+ * to the first place where the actual and the expected values differ and
+ * the two values there, not the two whole values.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesDiff {
+
+	Author dickens = new Author("Charles Dickens", 1812);
+	Author austen = new Author("Jane Austen", 1775);
+	Author austin = new Author("Jane Austin", 1775);
+
+	Library library = new Library(new Book("Hard Times", this.dickens),
+			new Book("Emma", this.austen), new Book("Bleak House", this.dickens),
+			new Book("Persuasion", this.austen));
+	Library misspelled = new Library(new Book("Hard Times", this.dickens),
+			new Book("Emma", this.austen), new Book("Bleak House", this.dickens),
+			new Book("Persuasion", this.austin));
+	Library shorter = new Library(new Book("Hard Times", this.dickens),
+			new Book("Emma", this.austen), new Book("Bleak House", this.dickens));
+
+	/**
+	 * Produce the list of the numbers from the given one up to 1000.
+	 * 
+	 * @param from the first number
+	 * @return the list of the numbers
+	 */
+	ILoInt numbers(int from) {
+		ILoInt list = new MtLoInt();
+		for (int i = 1000; i >= from; i--)
+			list = new ConsLoInt(i, list);
+		return list;
+	}
+
+	/**
+	 * <P>Tests that fail deep inside of the compared values.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testDifferences(Tester t) {
+		t.checkExpect(this.library, this.misspelled,
+				"Should fail: the author of the fourth book is misspelled");
+		t.checkExpect(this.library, this.shorter,
+				"Should fail: the fourth book is missing");
+		t.checkExpect(this.library.books, this.shorter.books,
+				"Should fail: the list of books is shorter");
+
+		ConsLoInt last = (ConsLoInt) this.numbers(1000);
+		ILoInt changed = this.numbers(1);
+		t.checkExpect(this.numbers(1), changed, "Success: the same numbers");
+		ConsLoInt end = (ConsLoInt) changed;
+		while (end.first < 999)
+			end = (ConsLoInt) end.rest;
+		end.rest = new ConsLoInt(-1000, new MtLoInt());
+		t.checkExpect(this.numbers(1), changed,
+				"Should fail: the last number is negative");
+		t.checkExpect(last.first, 1000, "Success: the last number");
+	}
+
+	/**
+	 * <P>Inexact tests: the report of a failure also shows the relative
+	 * tolerance used.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testInexactDifferences(Tester t) {
+		City boston = new City("Boston", 42.36, -71.06);
+		t.checkInexact(boston, new City("Boston", 42.3601, -71.0589), 0.001,
+				"Success: close enough");
+		t.checkInexact(boston, new City("Boston", 42.36, -71.6), 0.001,
+				"Should fail: the longitude is too far off");
+	}
+
+	/**
+	 * <P>Run all tests defined in the <CODE>{@link ExamplesDiff ExamplesDiff}</CODE> 
+	 * class, showing only the first difference of the failed tests.</P>
+	 */
+	public static void main(String[] argv)
+	{
+		System.setProperty(Tester.DIFF_PROPERTY, "true");
+		ExamplesDiff ed = new ExamplesDiff();
+
+		Tester.runReport(ed, false, false);
+	}
+}
@@ -0,0 +1,57 @@
+package isolation;
+
+import tester.Tester;
+
+/**
+ * <P>Class to show that a test method that throws an exception ends only
+ * itself: the exception is reported as a failed test named after the
+ * test method, and the remaining test methods are still run.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesIsolation {
+
+	String[] words = new String[] { "one", "two", "three" };
+
+	/**
+	 * <P>Tests that run before the exception is thrown.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testBefore(Tester t) {
+		t.checkExpect(1 + 1, 2, "Success: one plus one");
+		t.checkExpect(this.words.length, 3, "Success: three words");
+	}
+
+	/**
+	 * <P>A test method that throws an exception after its first test.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testThrows(Tester t) {
+		t.checkExpect(this.words[0], "one", "Success: the first word");
+		t.checkExpect(this.words[3], "four", "Never evaluated: no fourth word");
+	}
+
+	/**
+	 * <P>Tests that still run after the exception was thrown.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testAfter(Tester t) {
+		t.checkExpect(this.words[2], "three", "Success: the last word");
+		t.checkExpect("hello", "world", "Should fail: different strings");
+	}
+
+	/**
+	 * <P>Run all tests defined in the <CODE>{@link ExamplesIsolation ExamplesIsolation}</CODE> 
+	 * class.</P>
+	 */
+	public static void main(String[] argv)
+	{
+		ExamplesIsolation ei = new ExamplesIsolation();
+
+		Tester.runFullReport(ei);
+	}
+}
@@ -0,0 +1,126 @@
+package printing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import tester.PrintLimits;
+import tester.Printer;
+import tester.Tester;
+
+/**
+ * <P>Class to show the representations produced by the
+ * <CODE>{@link tester.Printer Printer}</CODE> within the
+ * <CODE>{@link tester.PrintLimits PrintLimits}</CODE>: what is left out
+ * of a value that is too deep, has too many elements, or is too long is
+ * shown by a mark that says how much was left out.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesPrintLimits {
+
+	Book last = new Book("Last", null);
+	Book middle = new Book("Middle", this.last);
+	Book first = new Book("First", this.middle);
+
+	/** a list with a million elements */
+	ArrayList<Integer> numbers = new ArrayList<Integer>();
+
+	ExamplesPrintLimits() {
+		for (int i = 0; i < 1000000; i++)
+			this.numbers.add(i);
+	}
+
+	/**
+	 * <P>Tests of the limit on the levels of nested objects.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testDepth(Tester t) {
+		t.checkExpect(Printer.produceString(this.first,
+				new PrintLimits(1, 0, 0, 0)),
+				"Book \"First\"\n"
+				+ " new printing.Book:1(\n"
+				+ "  this.title =  \"First\"\n"
+				+ "  this.sequel = Book \"Middle\"\n"
+				+ "   new printing.Book(...))",
+				"Success: only the fields of the first book");
+	}
+
+	/**
+	 * <P>Tests of the limit on the number of elements.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testElements(Tester t) {
+		t.checkExpect(Printer.produceIterableStrings(this.numbers,
+				new PrintLimits(0, 3, 0, 0)),
+				"\nIterable[0] 0,\nIterable[1] 1,\nIterable[2] 2,"
+				+ "\n... 999997 more elements",
+				"Success: three of a million numbers");
+		t.checkExpect(Printer.produceString(
+				new Object[] { "a", "b", "c" }, new PrintLimits(0, 2, 0, 0)),
+				"\n new Object[3](){\n  [0]  \"a\",\n  [1]  \"b\","
+				+ "\n  ... 1 more elements}",
+				"Success: two of three strings");
+	}
+
+	/**
+	 * <P>Tests of the limits on the length of the representation and of
+	 * the <CODE>String</CODE> values in it.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testLength(Tester t) {
+		t.checkExpect(Printer.produceString("abcdefghij",
+				new PrintLimits(0, 0, 0, 4)),
+				" \"abcd\"... (6 more characters)",
+				"Success: the first four letters");
+		t.checkExpect(Printer.produceString(this.numbers,
+				new PrintLimits(0, 0, 40, 0)),
+				"\n new java.util.ArrayList:1(){\n  Iterabl"
+				+ "\n... (cut at 40 characters)",
+				"Success: the first forty characters");
+	}
+
+	/**
+	 * <P>Tests of the limits on a big map: only the entries shown are
+	 * rendered, not the whole map.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testMap(Tester t) {
+		HashMap<Integer, String> values = new HashMap<Integer, String>();
+		for (int i = 0; i < 2000000; i++)
+			values.put(i, "value-" + i);
+		t.checkExpect(Printer.produceString(values,
+				new PrintLimits(2, 2, 500, 20)),
+				"\n new java.util.HashMap:1(){"
+				+ "\n  (key: 0\n   value:  \"value-0\"),"
+				+ "\n  (key: 1\n   value:  \"value-1\"),"
+				+ "\n  ... 1999998 more elements}",
+				"Success: two of two million entries");
+	}
+
+	/**
+	 * <P>Tests that show a value in full without limits.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testNoLimits(Tester t) {
+		t.checkExpect(Printer.produceString(this.middle, PrintLimits.NONE),
+				Printer.produceString(this.middle),
+				"Success: no limits by default");
+	}
+
+	/**
+	 * <P>Run all tests defined in the <CODE>{@link ExamplesPrintLimits ExamplesPrintLimits}</CODE> 
+	 * class.</P>
+	 */
+	public static void main(String[] argv)
+	{
+		ExamplesPrintLimits epl = new ExamplesPrintLimits();
+
+		Tester.runReport(epl, false, false);
+	}
+}
@@ -0,0 +1,115 @@
+package printing;
+
+import java.util.ArrayList;
+
+import tester.Printer;
+import tester.Tester;
+
+/**
+ * <P>A book whose <CODE>toString</CODE> method uses the
+ * <CODE>{@link tester.Printer Printer}</CODE> itself, while it is being
+ * printed.</P>
+ */
+class Book {
+	String title;
+	Book sequel;
+
+	Book(String title, Book sequel) {
+		this.title = title;
+		this.sequel = sequel;
+	}
+
+	public String toString() {
+		return "Book" + Printer.produceString(this.title);
+	}
+}
+
+/**
+ * <P>Class to show that every representation produced by the
+ * <CODE>{@link tester.Printer Printer}</CODE> has its own numbering of
+ * the objects and its own indentation: a <CODE>toString</CODE> method
+ * that prints while it is being printed, or several threads printing at
+ * the same time, do not change it.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesPrinting {
+
+	Book last = new Book("Last", null);
+	Book middle = new Book("Middle", this.last);
+	Book first = new Book("First", this.middle);
+
+	/** the representation of the first book */
+	String expected = "Book \"First\"\n"
+			+ " new printing.Book:1(\n"
+			+ "  this.title =  \"First\"\n"
+			+ "  this.sequel = Book \"Middle\"\n"
+			+ "   new printing.Book:2(\n"
+			+ "    this.title =  \"Middle\"\n"
+			+ "    this.sequel = Book \"Last\"\n"
+			+ "     new printing.Book:3(\n"
+			+ "      this.title =  \"Last\"\n"
+			+ "      this.sequel = null)))";
+
+	/**
+	 * <P>Tests of printing from a <CODE>toString</CODE> method.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testReentrant(Tester t) {
+		t.checkExpect(Printer.produceString(this.first), this.expected,
+				"Success: the nested printing keeps the numbering");
+		Book[] twice = new Book[] { this.last, this.last };
+		t.checkExpect(Printer.produceString(twice),
+				"\n new Object[2](){\n  [0] Book \"Last\"\n"
+				+ "   new printing.Book:2(\n    this.title =  \"Last\"\n"
+				+ "    this.sequel = null),\n  [1] printing.Book:2}",
+				"Success: the second reference shows the number of the first");
+	}
+
+	/**
+	 * <P>Tests of printing the same books in several threads at the same
+	 * time.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testThreads(Tester t) throws InterruptedException {
+		final ArrayList<String> printed = new ArrayList<String>();
+		ArrayList<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread() {
+				public void run() {
+					for (int j = 0; j < 500; j++) {
+						String s = Printer.produceString(first);
+						synchronized (printed) {
+							printed.add(s);
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		int different = 0;
+		for (String s : printed)
+			if (!s.equals(this.expected))
+				different = different + 1;
+		t.checkExpect(printed.size(), 2000, "Success: all printed");
+		t.checkExpect(different, 0, "Success: all printed the same");
+	}
+
+	/**
+	 * <P>Run all tests defined in the <CODE>{@link ExamplesPrinting ExamplesPrinting}</CODE> 
+	 * class.</P>
+	 */
+	public static void main(String[] argv)
+	{
+		ExamplesPrinting ep = new ExamplesPrinting();
+
+		Tester.runFullReport(ep);
+	}
+}
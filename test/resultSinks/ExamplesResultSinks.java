@@ -0,0 +1,98 @@
+package resultSinks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+import tester.ConsoleSink;
+import tester.FileSink;
+import tester.JUnitXmlSink;
+import tester.JsonLinesSink;
+import tester.MemorySink;
+import tester.Tester;
+
+/**
+ * <P>Class to show the different receivers of test results: the usual
+ * report kept in memory, the results printed as they happen, the
+ * results written to a file, and the results written as JSON lines and
+ * as JUnit XML.</P>
+ * <P>Two of the tests fail on purpose, so that every receiver has some
+ * failures to report.</P>
+ * 
+ * @since 18 October 2026
+ *
+ */
+public class ExamplesResultSinks {
+
+	String[] words1 = new String[] { "one", "two", "three" };
+	String[] words2 = new String[] { "one", "two", "three" };
+
+	/**
+	 * <P>Tests whose results are sent to the different receivers.</P>
+	 * 
+	 * @param t the <CODE>{@link tester.Tester Tester}</CODE> that performs the tests
+	 */
+	public void testResults(Tester t) {
+		t.checkExpect(1 + 1, 2, "Success: one plus one");
+		t.checkExpect("hello", "world", "Should fail: different strings");
+		t.checkExpect(this.words1, this.words2, "Success: same arrays");
+		t.checkExpect(this.words1, new String[] { "one", "two" },
+				"Should fail: arrays of different lengths");
+	}
+
+	/**
+	 * <P>Run all tests defined in the <CODE>{@link ExamplesResultSinks ExamplesResultSinks}</CODE> 
+	 * class, sending the results to each receiver in turn.</P>
+	 */
+	public static void main(String[] argv) throws IOException
+	{
+		ExamplesResultSinks er = new ExamplesResultSinks();
+
+		System.out.println("Print every test result as it happens:");
+		Tester.runReports(new ConsoleSink(System.out, true), true, false, er);
+
+		System.out.println("\nKeep the test results in memory:");
+		MemorySink memory = new MemorySink();
+		Tester.runReports(memory, false, false, er);
+		System.out.println("The recorded failures are still available:\n"
+				+ memory.getFailedResults());
+
+		System.out.println("\nWrite the failed test results to a file:");
+		File file = File.createTempFile("results", ".txt");
+		file.deleteOnExit();
+		FileSink sink = new FileSink(file);
+		Tester.runReports(sink, false, false, er);
+		sink.close();
+		printFile(file);
+
+		System.out.println("\nWrite every test result as a line of JSON:");
+		file = File.createTempFile("results", ".jsonl");
+		file.deleteOnExit();
+		JsonLinesSink json = new JsonLinesSink(file);
+		Tester.runReports(json, false, false, er);
+		json.close();
+		printFile(file);
+
+		System.out.println("\nWrite every test result as JUnit XML:");
+		file = File.createTempFile("results", ".xml");
+		file.deleteOnExit();
+		JUnitXmlSink xml = new JUnitXmlSink(file, "resultSinks");
+		Tester.runReports(xml, false, false, er);
+		xml.close();
+		printFile(file);
+	}
+
+	/**
+	 * Print the contents of the given file.
+	 * 
+	 * @param file the file to print
+	 */
+	static void printFile(File file) throws IOException {
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		String line;
+		while ((line = reader.readLine()) != null)
+			System.out.println(line);
+		reader.close();
+	}
+}